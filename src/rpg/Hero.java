@@ -1,21 +1,16 @@
 package rpg;
 
 import rpg.inventory.AnchorType;
-import rpg.inventory.Anchorpoint;
 import rpg.inventory.Parent;
-import rpg.inventory.Weapon;
 import rpg.value.Strength;
+import rpg.value.Unit;
 import rpg.value.Weight;
 import sun.plugin.javascript.navig.Anchor;
 import sun.plugin.javascript.navig.Array;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
 import java.util.Arrays;
 import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.Random;
 
 /**
  * Created by elias on 15/07/2017.
@@ -58,37 +53,60 @@ public class Hero extends Mobile {
      * Checks whether the given string is an effective name for a hero.
      * @param name
      *        String to be checked.
-     * @return False if there is a : without a space after it.
-     *       | if
-     * todo finish this shite
+     * @return | return isValidHeroName(name)
      */
     @Override
     public boolean isValidName(String name) {
-        String paddedName = name + "_"; //padding string so no try catch has to be used in the for loop later
-        char[] nameCharArray = paddedName.toCharArray();
-        for (int i = 0; i < nameCharArray.length - 1; i++) {
-            if(nameCharArray[i] == ':'){
-                if(nameCharArray[i+1] != ' ') return false;
-            }
-        }
-        int count = 0;
-        for(char c : nameCharArray){
-            if(c == '\'') count++;
+        return isValidHeroName(name);
+    }
+
+    /**
+     * Checks whether the given characters form an effective name for a hero.
+     * @param name
+     *        Characters to be checked.
+     * @return False if the name is not effective.
+     *       | if name == null return false
+     *         False if there is a : without a space after it, or more than two apostrophes.
+     *         Else true if the name consists of a capital letter followed by at least one
+     *         letter or space.
+     *       | return name.matches("^[A-Z][A-Za-z ]+")
+     * @note The name is checked in a single pass without creating any objects. Colons and
+     * apostrophes are not among the characters a name may consist of, so any name holding
+     * one is rejected and the rules about them never have to be checked separately.
+     */
+    public static boolean isValidHeroName(CharSequence name) {
+        if (name == null || name.length() < 2) return false;
+        char first = name.charAt(0);
+        if (first < 'A' || first > 'Z') return false;
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == ' ')) return false;
         }
-        if (count > 2) return false;
-        name.replace("(: )", "");
-        name.replace("'", "");
-        return name.matches("^[A-Z][A-Za-z ]+");
+        return true;
+    }
+
+    /**
+     * Checks all the given names for heroes.
+     * @param names
+     *        Names to be checked.
+     * @return The indices of the names that are not effective names for a hero,
+     *         in ascending order.
+     *       | for each index in result:
+     *       |    !isValidHeroName(names[index])
+     * @throws IllegalArgumentException
+     *         If the given array of names is not effective.
+     *       | names == null
+     */
+    public static int[] validateNames(CharSequence[] names) {
+        return validateNames(names, Hero::isValidHeroName);
     }
 
     /*****************************
      * 1.4: Capacity
      *****************************/
 
-    private static MathContext ceiling = new MathContext(0,RoundingMode.FLOOR);
-
     /**
-     * HashMap mapping the ceiling value of strength to the maximum carrying capacity for
+     * Array mapping the ceiling value of strength to the maximum carrying capacity for
      * strength values between [ceiling - .99, ceiling]. See table below for exact values.
      * _______________________
      * |   Range    | Weigth |
@@ -104,16 +122,102 @@ public class Hero extends Mobile {
      * | 18.01 - 19 |  350   |
      * | 19.01 - 20 |  400   |
      * -----------------------
+     * The capacity for a ceiling value of i is stored at index i - 11.
+     */
+    private static final int[] TEN_TO_TWENTY = {115, 130, 150, 175, 200, 230, 260, 300, 350, 400};
+
+    /**
+     * Strength in hundredths above which the capacity is four times the capacity for
+     * ten strength less.
+     */
+    private static final int TABLE_BASE_LIMIT = 2000;
+
+    /**
+     * Strength in hundredths that is subtracted for every quadrupling of the capacity.
+     */
+    private static final int TABLE_PERIOD = 1000;
+
+    /**
+     * Largest weight that can be represented, the capacity of every strength whose
+     * capacity according to the table would be larger.
      */
-    private static HashMap<Integer, Integer> tenToTwentyMap = new HashMap<>(10);
+    private static final Weight MAXIMUM_CAPACITY =
+            new Weight(BigDecimal.valueOf(Long.MAX_VALUE, Unit.kg.getPrecision()), Unit.kg);
 
     /**
-     * Fills the HashMap according to table above.
+     * Table holding the carrying capacity for every strength in hundredths, indexed by
+     * the number of hundredths.
+     *
+     * @note The table starts out covering strengths up to 20. Higher strengths extend it
+     * at most one period of ten strength at a time, every new entry being four times the entry
+     * one period lower, which is what the recursive definition of the capacity amounts
+     * to. Weights are immutable, so the entries are shared by all heroes. A table is
+     * never modified once published, extending it publishes a longer copy.
+     * Entries that would not fit a weight are the maximum capacity. Capacities never
+     * decrease with strength, so once the last entry is the maximum capacity the table
+     * is not extended any further.
+     */
+    private static volatile Weight[] capacityTable = createCapacityTable();
+
+    /**
+     * Lock guarding the extension of the capacity table.
      */
-    static {
-        int[] values = {115, 130, 150, 175, 200, 230, 260, 300, 350, 400};
-        for (int i = 11; i <= 20; i++) {
-            tenToTwentyMap.put(i,values[i - 11]);
+    private static final Object capacityTableLock = new Object();
+
+    /**
+     * Creates the capacity table for all strengths up to 20.
+     */
+    private static Weight[] createCapacityTable() {
+        Weight[] table = new Weight[TABLE_BASE_LIMIT + 1];
+        Weight base = new Weight(10);
+        for (int hundredths = 0; hundredths <= TABLE_BASE_LIMIT; hundredths++) {
+            if (hundredths < 100) {
+                table[hundredths] = Weight.kg_0;
+            } else if (hundredths <= 1000) {
+                table[hundredths] = base.multiply(Strength.valueOf(hundredths));
+            } else {
+                int ceiling = (hundredths + 99) / 100;
+                table[hundredths] = new Weight(TEN_TO_TWENTY[ceiling - 11]);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Extends the capacity table until it covers the given strength.
+     * @param hundredths
+     *        Strength in hundredths the table must cover.
+     * @return A capacity table covering the given strength, or ending in the maximum
+     *         capacity.
+     */
+    private static Weight[] extendCapacityTable(long hundredths) {
+        synchronized (capacityTableLock) {
+            Weight[] table = capacityTable;
+            while (table.length <= hundredths && table[table.length - 1] != MAXIMUM_CAPACITY) {
+                // stop at the given strength, no entries are created that are not needed yet
+                int length = (int) Math.min(table.length + TABLE_PERIOD, hundredths + 1);
+                Weight[] extended = Arrays.copyOf(table, length);
+                for (int i = table.length; i < extended.length; i++) {
+                    extended[i] = quadrupled(extended[i - TABLE_PERIOD]);
+                }
+                table = extended;
+                capacityTable = table;
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Multiplies the given capacity by four.
+     * @return Four times the given capacity, or the maximum capacity if that does not
+     *         fit a weight.
+     */
+    private static Weight quadrupled(Weight capacity) {
+        if (capacity == MAXIMUM_CAPACITY) return MAXIMUM_CAPACITY;
+        try {
+            return capacity.multiply(4);
+        } catch (ArithmeticException e) {
+            return MAXIMUM_CAPACITY;
         }
     }
 
@@ -131,45 +235,38 @@ public class Hero extends Mobile {
      * @param strength
      *        Strength value on which the carrying capacity will be based.
      * @return If the strength value of the mobile is smaller than 1 it cannot carry anything.
-     * | if strength <= 1
+     * | if strength < 1
      * |    return Weight.kg_0
      * @return If the strength value of the mobile is larger or equal to 1 and smaller or equal to 10,
      * the mobile can carry a weight in kg 10 times larger than it's strength.
      * | else if strength <= 10
      * |    return new Weight(strength * 10)
      * @return If the strength value of the mobile is larger than 10 and smaller or equal to 20, the
-     * mobile can carry a weight in kg defined by the tenToTwentyMap. It maps the ceiling of the strength
+     * mobile can carry a weight in kg defined by the table above. It maps the ceiling of the strength
      * value to the maximum carrying capacity, so that a value in ]ceiling - 1, ceiling] gets mapped to it.
      * | else if strength <= 20
      * |    let:
      * |        celing = strength.ceiling()
-     * |        numeral = tenToTwentyMap.get(ceiling)
+     * |        numeral = TEN_TO_TWENTY[ceiling - 11]
      * |    then:
      * |        return new Weight(numeral)
      * @return If the strength value lies above 20, the carrying capacity is defined by multiplying the
      * carrying capacity for the strength value subtracted by 10, multiplied by 4.
      * | return getCapacity(strength - 10) * 4
+     * @return If that capacity cannot be represented by a weight, the largest weight in kg
+     * that can be represented.
+     * | return new Weight(BigDecimal.valueOf(Long.MAX_VALUE, Unit.kg.getPrecision()), Unit.kg)
      *
-     * @note A method with an explicit value for strength has been created in order to
-     * be able to use recursion for values of strength larger than 20.
+     * @note The capacity is looked up in the capacity table, so no weight is created unless
+     * the table has to be extended first.
      */
-    private Weight getCapacity(Strength strength){
-        double strengthAsDouble = strength.getNumeral().doubleValue();
-        if (strengthAsDouble < 1){
-            return Weight.kg_0;
-        } else if (strengthAsDouble <= 10) {
-            Weight base = new Weight(10);
-            return base.multiply(strength);
-        } else if (strengthAsDouble <= 20) {
-            int floorNumeral = strength.getNumeral().round(ceiling).intValue();
-            return new Weight(tenToTwentyMap.get(floorNumeral));
-        } else {
-            BigDecimal newNumeral =
-                    strength.getNumeral()
-                            .subtract(new BigDecimal(10));
-            Strength newStrength = new Strength(newNumeral);
-            return getCapacity(newStrength).multiply(4);
+    public static Weight getCapacity(Strength strength){
+        long hundredths = strength.getHundredths();
+        Weight[] table = capacityTable;
+        if (hundredths >= table.length) {
+            table = extendCapacityTable(hundredths);
         }
+        return hundredths < table.length ? table[(int) hundredths] : MAXIMUM_CAPACITY;
     }
 
     /*****************************
@@ -204,14 +301,13 @@ public class Hero extends Mobile {
     /**
      * Generates a pseudorandom number based on which hit success is
      * determined.
-     * @return Pseudorandom integer between 0 and 20, generated by built in function nextInt
-     * from the Random class. Given bound value is 21 as that bound is exclusive.
-     * | return nextInt(21)
+     * @return Pseudorandom integer between 0 and 20, generated by the random source
+     * of this hero. Given bound value is 21 as that bound is exclusive.
+     * | return getRandomSource().nextInt(21)
      */
     @Override
     public int generateAttackSeed() {
-        Random ranGen = new Random();
-        return ranGen.nextInt(21);
+        return getRandomSource().nextInt(21);
     }
 
     /**
@@ -221,29 +317,19 @@ public class Hero extends Mobile {
      * | let:
      * |    weaponDmg = weapon1.getDamage + weapon2.getDamage + ...
      * |    dmg = ((getStrength() + weaponDmg) - 10)/2
-     * @return If dmg is larger than 0, return dmg. Else return 0.
-     * | if(dmg > 0) return dmg
+     * @return If dmg is larger than 0, return dmg rounded down. Else return 0.
+     * | if(dmg > 0) return floor(dmg)
      * | else return 0
+     * @note The damage of the held weapons is kept up to date by the anchorpoints and the
+     * strength is taken in hundredths, so a hit only takes a few integer operations.
      */
     @Override
     public int calculateDamage() {
-        int totalWeaponDmg = 0;
-        //Adds all damage values of the weapons held in anchorpoints together.
-        for (Anchorpoint a : this.getAnchorpoints()){
-            totalWeaponDmg +=
-                    //if the anchorpoint contains a weapon, add to total, else add 0.
-                    a.containsWeapon() ? ((Weapon) a.getContent()).getDamage() : 0;
-        }
-        Strength attackDamage = getStrength().add(totalWeaponDmg);
-        attackDamage = attackDamage.add(-10);
-        if (attackDamage.getNumeral().signum() == -1){
+        long hundredths = getStrength().getHundredths() + getWeaponDamage() * 100L - 1000;
+        if (hundredths < 0){
             return 0;
         } else {
-            attackDamage = attackDamage.divide(2);
-            //rounding mode discarding everything after the decimal point.
-            MathContext floor = new MathContext(0, RoundingMode.FLOOR);
-            //rounds numeral using floor, converts to int, returns result.
-            return attackDamage.getNumeral().round(floor).intValue();
+            return (int) (hundredths / 200);
         }
     }
 
@@ -267,8 +353,7 @@ public class Hero extends Mobile {
      */
     private void heal(){
         int hpDiff = getMaximumHitpoints() - getCurrentHitpoints();
-        Random random = new Random();
-        float percentage = random.nextFloat();
+        float percentage = getRandomSource().nextFloat();
         float healAmount = hpDiff * percentage;
         int roundedHealAmount = Math.round(healAmount);
         int nextHP = primeUtil.closestPrime(roundedHealAmount + getCurrentHitpoints());
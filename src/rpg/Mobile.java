@@ -5,11 +5,14 @@ import rpg.inventory.AnchorType;
 import rpg.inventory.Anchorpoint;
 import rpg.inventory.Item;
 import rpg.utility.PrimeUtility;
+import rpg.utility.RandomSource;
 import rpg.value.Strength;
 import rpg.value.Weight;
+import rpg.value.WeightAccumulator;
 
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.function.Predicate;
 
 public abstract class Mobile {
 
@@ -30,9 +33,14 @@ public abstract class Mobile {
      * types specified in the set anchorTypes.
      * | for each type in anchorTypes:
      * |    anchorpoints.get(type) != null
+     * @param randomSource
+     *        Source of the random numbers this mobile uses in combat.
+     * @effect | setRandomSource(randomSource)
      * @note All
      */
-    public Mobile(String name, int maximumHitpoints, EnumSet<AnchorType> anchorTypes) {
+    public Mobile(String name, int maximumHitpoints, EnumSet<AnchorType> anchorTypes, RandomSource randomSource) {
+        //random source
+        setRandomSource(randomSource);
         //name
         setName(name);
         //hitpoints
@@ -46,6 +54,51 @@ public abstract class Mobile {
         }
     }
 
+    /**
+     * Creates a mobile that uses the random generator of the calling thread.
+     *
+     * @effect | this(name, maximumHitpoints, anchorTypes, RandomSource.threadLocal())
+     */
+    public Mobile(String name, int maximumHitpoints, EnumSet<AnchorType> anchorTypes) {
+        this(name, maximumHitpoints, anchorTypes, RandomSource.threadLocal());
+    }
+
+    /*****************************
+     * Random source
+     *****************************/
+
+    /**
+     * Getter for the source of the random numbers this mobile uses in combat.
+     */
+    public RandomSource getRandomSource() {
+        return randomSource;
+    }
+
+    /**
+     * Setter for the source of the random numbers this mobile uses in combat.
+     * @param randomSource
+     *        Source to be used.
+     * @effect If the given source is effective, it is used.
+     * | if randomSource != null
+     * |    this.randomSource = randomSource
+     * @effect Else the random generator of the calling thread is used.
+     * | this.randomSource = RandomSource.threadLocal()
+     * @note Give a mobile a seeded source to replay its fights, every thread
+     * simulating fights should use its own split of that source.
+     */
+    public void setRandomSource(RandomSource randomSource) {
+        if (randomSource != null) {
+            this.randomSource = randomSource;
+        } else {
+            this.randomSource = RandomSource.threadLocal();
+        }
+    }
+
+    /**
+     * Variable referencing the source of the random numbers this mobile uses in combat.
+     */
+    private RandomSource randomSource = RandomSource.threadLocal();
+
     /*****************************
      * Name
      *****************************/
@@ -79,6 +132,39 @@ public abstract class Mobile {
      */
     public abstract boolean isValidName(String name);
 
+    /**
+     * Checks all the given names with the given validator.
+     * @param names
+     *        Names to be checked.
+     * @param validator
+     *        Check a name has to pass to be valid.
+     * @return The indices of the names that do not pass the check, in ascending order.
+     *       | for each index in result:
+     *       |    !validator.test(names[index])
+     * @throws IllegalArgumentException
+     *         If the given array of names is not effective.
+     *       | names == null
+     * @note Meant for validating many names at once, a name that fails is only recorded
+     * so no exception has to be thrown and caught per name.
+     */
+    protected static int[] validateNames(CharSequence[] names, Predicate<CharSequence> validator)
+            throws IllegalArgumentException {
+        if (names == null) {
+            throw new IllegalArgumentException("Names contains null reference!");
+        }
+        int[] failures = new int[8];
+        int nbOfFailures = 0;
+        for (int i = 0; i < names.length; i++) {
+            if (!validator.test(names[i])) {
+                if (nbOfFailures == failures.length) {
+                    failures = Arrays.copyOf(failures, failures.length * 2);
+                }
+                failures[nbOfFailures++] = i;
+            }
+        }
+        return Arrays.copyOf(failures, nbOfFailures);
+    }
+
     /**
      * Variable for storing the name of this mobile.
      */
@@ -150,10 +236,13 @@ public abstract class Mobile {
     private final int maximumHitpoints;
 
     /**
-     * Utility for finding primes. It builds up an internal list of primes so calculating if a number is prime
-     * only has to be done once. Making this object static ensures the list is shared among all instances of mobile.
+     * Utility for finding primes. It builds up an internal sieve so calculating if a number is prime
+     * only has to be done once. Making this object static ensures the sieve is shared among all instances of mobile,
+     * the utility is safe to use from several threads. If the sieve file property is set,
+     * the sieve is mapped from that file instead, see PrimeUtility#fromSystemProperties().
+     * A file that cannot be mapped is ignored, so it never keeps this class from loading.
      */
-    protected static PrimeUtility primeUtil = new PrimeUtility();
+    protected static PrimeUtility primeUtil = PrimeUtility.fromSystemProperties();
 
     /*****************************
      * Anchorpoints
@@ -216,14 +305,31 @@ public abstract class Mobile {
      * |     sum += anchorpoint.getContent().getWeight()
      */
     public Weight getCurrentCarriedWeight() {
-        Weight sum = Weight.kg_0;
-        for (Anchorpoint point:
-             anchorpoints.values()) {
-            sum = sum.add(point.getWeightOfContent());
-        }
-        return sum;
+        return carriedWeight.toWeight();
+    }
+
+    /**
+     * Updates the running total of the weight carried by this mobile.
+     * To be used by the anchorpoints of this mobile whenever their content, or the
+     * content of a container they hold, changes.
+     *
+     * @param added   Weight that has been added, may be null.
+     * @param removed Weight that has been removed, may be null.
+     * @effect | carriedWeight = carriedWeight + added - removed
+     */
+    public void adjustCarriedWeight(Weight added, Weight removed) {
+        carriedWeight.add(added);
+        carriedWeight.subtract(removed);
     }
 
+    /**
+     * Running total of the weight of all items held by this mobile.
+     *
+     * @note Kept up to date by the anchorpoints, so capacity checks compare against the
+     * capacity directly instead of summing up the anchorpoints every time.
+     */
+    private final WeightAccumulator carriedWeight = new WeightAccumulator();
+
     /**
      * Checks if adding the given item to the current set of carried items will
      * exceed the carrying capacity of this mobile.
@@ -239,12 +345,21 @@ public abstract class Mobile {
         if (item == null) {
             return false;
         } else {
-            Weight itemWeight = item.getWeight();
-            Weight current = getCurrentCarriedWeight();
-            return exceedsCapacity(current.add(itemWeight));
+            return exceedsCapacityWith(item.getTotalWeight());
         }
     }
 
+    /**
+     * Checks if adding the given weight to the current set of carried items will
+     * exceed the carrying capacity of this mobile.
+     * @param weight
+     *        Weight that would be added.
+     * @return | return exceedsCapacity(getCurrentCarriedWeight() + weight)
+     */
+    public boolean exceedsCapacityWith(Weight weight) {
+        return carriedWeight.exceedsWith(weight, getCapacity());
+    }
+
     /**
      * Checks if the given weight would exceed this mobile's carrying capacity.
      *
@@ -256,6 +371,36 @@ public abstract class Mobile {
         return getCapacity().isSmallerThan(weight);
     }
 
+    /**
+     * Returns the total damage of the weapons held in the anchorpoints of this mobile.
+     *
+     * @return | sum of ((Weapon) a.getContent()).getDamage()
+     *         |     for each a in getAnchorpoints() with a.containsWeapon()
+     */
+    public int getWeaponDamage() {
+        return weaponDamage;
+    }
+
+    /**
+     * Updates the running total of the damage of the weapons held by this mobile.
+     * To be used by the anchorpoints of this mobile whenever the weapon they hold,
+     * or its damage, changes.
+     *
+     * @param delta Change in the damage of the held weapons.
+     * @effect | weaponDamage = weaponDamage + delta
+     */
+    public void adjustWeaponDamage(int delta) {
+        weaponDamage += delta;
+    }
+
+    /**
+     * Running total of the damage of the weapons held in the anchorpoints.
+     *
+     * @note Kept up to date by the anchorpoints, so calculating the damage of a hit does
+     * not have to go through all anchorpoints.
+     */
+    private int weaponDamage = 0;
+
     protected final Collection<Anchorpoint> getAnchorpoints(){
         return this.anchorpoints.values();
     }
@@ -49,7 +49,47 @@ public class Monster extends Mobile {
      *         Else return true
      */
     public boolean isValidName(String name){
-        return name.matches("^[A-Z][A-Za-z ']+");
+        return isValidMonsterName(name);
+    }
+
+    /**
+     * Checks whether the given characters form an effective name for a monster.
+     * @param name
+     *        Characters to be checked.
+     * @return False if the name is not effective.
+     *       | if name == null return false
+     *         Else true if the name consists of a capital letter followed by at least one
+     *         letter, space or apostrophe.
+     *       | return name.matches("^[A-Z][A-Za-z ']+")
+     * @note The name is checked in a single pass without creating any objects.
+     */
+    public static boolean isValidMonsterName(CharSequence name){
+        if (name == null || name.length() < 2) return false;
+        char first = name.charAt(0);
+        if (first < 'A' || first > 'Z') return false;
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == ' ' || c == '\'')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks all the given names for monsters.
+     * @param names
+     *        Names to be checked.
+     * @return The indices of the names that are not effective names for a monster,
+     *         in ascending order.
+     *       | for each index in result:
+     *       |    !isValidMonsterName(names[index])
+     * @throws IllegalArgumentException
+     *         If the given array of names is not effective.
+     *       | names == null
+     */
+    public static int[] validateNames(CharSequence[] names){
+        return validateNames(names, Monster::isValidMonsterName);
     }
 
     /*****************************
@@ -5,6 +5,7 @@ import be.kuleuven.cs.som.annotate.Raw;
 import rpg.exception.InvalidItemException;
 import rpg.Mobile;
 import rpg.value.Weight;
+import rpg.value.WeightAccumulator;
 
 /**
  * A class of Anchorpoints to which mobiles can attach Items.
@@ -98,9 +99,13 @@ public class Anchorpoint implements Parent {
      *       | !this.containsItem()
      *         If the target cannot accept the item.
      *       | !target.canHaveAsItem(content)
-     * @effect Adds the item to the target parent, then removes it from the anchorpoint.
+     * @effect Removes the item from the anchorpoint without dropping it, then adds it to
+     *         the target parent. If the target does not accept the item, it is put back.
+     *       | setContent(null)
      *       | target.addItem(content)
-     *       | dropItem()
+     * @note The item is taken out first, so moving it to another anchorpoint of the same
+     * holder does not count its weight twice, and it is not dropped, so a weapon is not
+     * destroyed on the way.
      */
     public void transferContentTo(Parent target) throws InvalidItemException{
         if (target == null) {
@@ -108,8 +113,14 @@ public class Anchorpoint implements Parent {
         } else if (!containsItem()) {
             throw new InvalidItemException("Anchorpoint contains no item!");
         } else {
-            target.addItem(getContent());
-            dropItem();
+            Item item = getContent();
+            setContent(null);
+            try {
+                target.addItem(item);
+            } catch (InvalidItemException | NullPointerException e) {
+                setContent(item);
+                throw e;
+            }
         }
     }
 
@@ -135,11 +146,43 @@ public class Anchorpoint implements Parent {
         if (item == null) {
             return false;
         } else {
-            Weight newWeight = getHolder().getCurrentCarriedWeight()
-                    .add(item.getWeight());
-            return getHolder().exceedsCapacity(newWeight);
+            return exceedsCapacityWith(item.getTotalWeight());
+        }
+
+    }
+
+    /**
+     * Checks if adding the given weight would exceed the holder's capacity.
+     * @param weight
+     *        Weight to be checked.
+     * @return If the given weight is a null reference, return false.
+     *       | if weight == null return false
+     * @return Else add the weight to the current carried weight and check
+     *         if that weight exceeds the capacity of the holder.
+     *       | return getHolder().exceedsCapacityWith(weight)
+     */
+    @Override
+    public boolean exceedsCapacityWith(Weight weight) {
+        if (weight == null) {
+            return false;
+        } else {
+            return getHolder().exceedsCapacityWith(weight);
         }
+    }
 
+    /**
+     * Passes a change in the weight of the item held in this anchorpoint on to the holder.
+     * @param added
+     *        Weight that has been added to the item, may be null.
+     * @param removed
+     *        Weight that has been removed from the item, may be null.
+     * @param valueDelta
+     *        Change in the value of the item, not tracked by the holder.
+     * @effect | getHolder().adjustCarriedWeight(added, removed)
+     */
+    @Override
+    public void adjustContentTotals(Weight added, Weight removed, int valueDelta) {
+        getHolder().adjustCarriedWeight(added, removed);
     }
 
     @Raw
@@ -163,12 +206,66 @@ public class Anchorpoint implements Parent {
         }
     }
 
+    /**
+     * Adds the total weight of the item currently being held to the given accumulator.
+     *
+     * @param accumulator Accumulator to add the weight to.
+     * @effect If the item is a container, its total weight is added.
+     * | if content instanceof Container
+     * |    content.addTotalWeightTo(accumulator)
+     * @effect Else if an item is being held, its weight is added.
+     * | else if containsItem()
+     * |    accumulator.add(content.getWeight())
+     */
+    public void addTotalWeightOfContentTo(WeightAccumulator accumulator) {
+        if (getContent() instanceof Container) {
+            ((Container) getContent()).addTotalWeightTo(accumulator);
+        } else if (containsItem()) {
+            accumulator.add(getContent().getWeight());
+        }
+    }
+
+    /**
+     * Sets the content of this anchorpoint and updates the weight carried by the holder.
+     * @param content
+     *        Item to hold, null to empty the anchorpoint.
+     * @effect The total weight of the old content is removed from the holder's carried
+     *         weight and the total weight of the new content is added.
+     */
     @Raw
-    @Basic
     private void setContent(Item content) {
+        Weight removed = containsItem() ? getContent().getTotalWeight() : null;
+        Weight added = content != null ? content.getTotalWeight() : null;
         this.content = content;
+        if (getHolder() != null) {
+            getHolder().adjustCarriedWeight(added, removed);
+        }
+        updateWeaponDamage();
     }
 
+    /**
+     * Passes a change in the damage of the weapon held in this anchorpoint on to the holder.
+     * To be used whenever the content changes or the held weapon changes its damage.
+     * @effect The holder's weapon damage is adjusted by the difference between the damage
+     *         of the current content and the damage counted before.
+     *       | getHolder().adjustWeaponDamage(damage - countedDamage)
+     */
+    void updateWeaponDamage() {
+        int damage = containsWeapon() ? ((Weapon) getContent()).getDamage() : 0;
+        if (getHolder() != null && damage != countedDamage) {
+            getHolder().adjustWeaponDamage(damage - countedDamage);
+        }
+        countedDamage = damage;
+    }
+
+    /**
+     * Damage of the held weapon as counted in the weapon damage of the holder.
+     *
+     * @note Remembered because a dropped weapon is destroyed before it leaves the
+     * anchorpoint, after which its own damage is zero.
+     */
+    private int countedDamage = 0;
+
     /**
      * Drops the item currently being held in this anchorpoint.
      *
@@ -181,7 +278,7 @@ public class Anchorpoint implements Parent {
     //todo this
     public void dropItem(Item item) throws InvalidItemException, NullPointerException {
         if (item == null) throw new NullPointerException("Item is null reference!");
-        else if (item.equals(getContent())){
+        else if (!item.equals(getContent())){
             throw new InvalidItemException("Anchorpoint does not contain given item!");
         } else {
             if (item instanceof hasParent){
@@ -3,19 +3,26 @@ package rpg.inventory;
 import be.kuleuven.cs.som.annotate.Raw;
 import org.omg.CORBA.DynAnyPackage.Invalid;
 import rpg.utility.BinomialGenerator;
+import rpg.utility.IDCheckpoint;
 import rpg.utility.IDGenerator;
+import rpg.utility.IDPartition;
 import rpg.exception.InvalidItemException;
 import rpg.value.Weight;
+import rpg.value.WeightAccumulator;
 
 import java.lang.reflect.Array;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Backpack extends Container implements Parent {
 
     public Backpack(int ownValue, Weight weight, Weight capacity) {
         super(weight, capacity);
         setOwnValue(ownValue);
+        registerIfConstructed(Backpack.class);
     }
 
     /*****************************
@@ -27,7 +34,16 @@ public class Backpack extends Container implements Parent {
         return idGen;
     }
 
-    private static BinomialGenerator idGen = new BinomialGenerator();
+    /**
+     * IDGenerator for the backpack class, generating the powers of two of the node
+     * partition configured for this process, checkpointed if a checkpoint directory
+     * is configured.
+     * @note Only 62 powers of two fit a long, so the generator restarts from the first
+     * one after 62 backpacks. A checkpoint makes a restarted process continue where the
+     * previous run stopped, but cannot keep identifiers of backpacks unique.
+     */
+    private static final BinomialGenerator idGen = IDCheckpoint.fromSystemProperties(
+            new BinomialGenerator(IDPartition.fromSystemProperties()), "backpacks");
 
     /**********************************
      * 4.2: Content - Inspectors
@@ -54,53 +70,96 @@ public class Backpack extends Container implements Parent {
      */
     @Override
     public boolean exceedsCapacity(Item item){
-        boolean exceedsThis = false;
         if (item == null) {
-            exceedsThis = false;
+            return false;
         } else {
-            Weight itemWeight = item.getWeight();
-            Weight current = getWeightOfContents();
-            exceedsThis = exceedsCapacity(current.add(itemWeight));
+            return exceedsCapacityWith(item.getTotalWeight());
+        }
+    }
+
+    /**
+     * Checks if adding the given weight to the content of this backpack would exceed
+     * the capacity of something in the chain of parents holding it.
+     * @param weight
+     *        Weight to check.
+     * @return False if the weight is null.
+     *       | if weight == null return false
+     * @return True if the weight of the contents plus the given weight exceeds the
+     *         capacity of this backpack, or if the parent cannot take the weight.
+     *       | return exceedsCapacity(getWeightOfContents() + weight)
+     *       |     || (hasParent() && getParent().exceedsCapacityWith(weight))
+     * @note The running content total is compared to the capacity in place, so every
+     *       level of the chain costs a comparison and nothing is summed or created.
+     */
+    @Override
+    public boolean exceedsCapacityWith(Weight weight){
+        if (weight == null) {
+            return false;
         }
-        return exceedsThis || getParent().exceedsCapacity(item);
+        // walk the chain of nested backpacks with a loop, deep nesting must not recurse
+        Parent current = this;
+        while (current instanceof Backpack) {
+            Backpack backpack = (Backpack) current;
+            if (backpack.getCapacity() != null && backpack.contentWeight.exceedsWith(weight, backpack.getCapacity())) {
+                return true;
+            }
+            current = backpack.getParent();
+        }
+        return current != null && current.exceedsCapacityWith(weight);
     }
 
     /**
      * Counts all the items contained in the backpack.
-     * @return Takes the sum of the sizes of all the ArrayList in the content
-     * HashMap
-     * | let: sum = 0
-     * | for each list in content:
-     * |    sum = sum + list.size
-     * | return sum
+     * @return The number of items in the content index.
+     * | return content.size()
+     * @note Ducats are counted separately.
+     * @see Backpack#getNbOfDucats()
      */
     @Override
     public int getNbOfItems() {
-        int count = 0;
-        for (ArrayList<Item> e:
-                getContent().values()) {
-            count += e.size();
-        }
-        return count;
+        return content.size();
+    }
+
+    /**
+     * Counts all the items contained in the backpack and in the backpacks nested in it.
+     * @return The number of items in the content index plus the number of items in
+     *         the nested backpacks.
+     * | return getNbOfItems() + sum of nested.getTotalNbOfItems()
+     * |     for each nested in content with nested instanceof Backpack
+     * @note The count is kept as a running total, so this does not walk the content.
+     */
+    public long getTotalNbOfItems() {
+        return totalNbOfItems;
     }
 
     /**
      * Checks if the given item exists in the backpack.
      * @param item
      *        Item to look for.
+     * @return All ducats are identical, so a ducat is in the backpack if the backpack
+     *         holds any ducat.
+     * | if item instanceof Ducat return getNbOfDucats() &gt; 0
      * @return If no entry with the id of the given item exists, return false.
-     * | if content.get(item.id) == null return false
-     *         Else, if the item exists in the ArrayList associated with
+     * | if content.get(item.id).isEmpty() return false
+     *         Else, if the item exists among the items associated with
      *         it's id, return true.
      * | return content.get(item.id).contains(item)
      */
     public boolean contains(Item item){
-        ArrayList<Item> list = getContent().get(item.getIdentifier());
-        if(list == null){
-            return false;
-        } else {
-            return list.contains(item);
-        }
+        if (item instanceof Ducat) return getNbOfDucats() > 0;
+        return content.contains(item);
+    }
+
+    /**
+     * Retrieves all the items in this backpack with the given identifier.
+     * @param identifier
+     *        Identifier to look for.
+     * @return A read-only view of the items directly in this backpack with the
+     *         given identifier, an empty list if there are none.
+     *       | return content.get(identifier)
+     */
+    public List<Item> getItemsWithIdentifier(long identifier){
+        return content.get(identifier);
     }
 
     /**********************************
@@ -156,8 +215,9 @@ public class Backpack extends Container implements Parent {
      *       | if (item instanceof hasParent)
      *       |      item.setParent(this)
      * @throws InvalidItemException
-     *         If the given item is already in this backpack.
-     *       | contains(item)
+     *         If the given item is already in this backpack. Ducats cannot be told apart, so
+     *         any number of them can be added.
+     *       | !(item instanceof Ducat) &amp;&amp; contains(item)
      *         If adding the given item would exceed one of the capacities of the parents it would be
      *         (indirectly) held in.
      *       | exceedsCapacity(item)
@@ -169,7 +229,7 @@ public class Backpack extends Container implements Parent {
     public void addItem(Item item) throws InvalidItemException, NullPointerException{
         if (item == null) {
             throw new NullPointerException("Item contains null reference!");
-        } else if(contains(item)) {
+        } else if(!(item instanceof Ducat) && contains(item)) {
             throw new InvalidItemException("Backpack already contains this item!");
         } else if(exceedsCapacity(item)){
             throw new InvalidItemException("Adding this item would exceed the capacity of this Backpack.");
@@ -216,14 +276,10 @@ public class Backpack extends Container implements Parent {
      * |    for each item in content:
      * |        sum = sum + item.getValue()
      * |    return sum
+     * @note The sum is kept as a running total, so this does not walk the content.
      */
     public int getValueOfContent(){
-        BackpackIterator it = this.iterator(true);
-        int sum = 0;
-        while(it.hasMoreElements()){
-            sum += it.nextElement().getValue();
-        }
-        return sum;
+        return contentValue;
     }
 
     /**********************************
@@ -233,26 +289,59 @@ public class Backpack extends Container implements Parent {
     /**
      * Creates an instance of BackpackIterator that iterates over the current
      * content of the backpack.
-     * @return new BackpackIterator(content)
-     * @note When the content of the backpack is modified, this will not modify
-     * the content of iterators that have already been created.
+     * @return new BackpackIterator(this, BackpackIterator.Order.preorder, 0)
+     * @note The iterator works on the content itself, not a copy. Modifying the
+     * content of the backpack while iterating, other than through the remove method
+     * of the iterator, causes a ConcurrentModificationException.
      */
     public BackpackIterator iterator(){
-        return new BackpackIterator(getContent());
+        return new BackpackIterator(this, BackpackIterator.Order.preorder, 0);
     }
 
     /**
-     * Creates an instance of BackpackIterator that iterates over the current
-     * content of the backpack.
-     * @param skipNested
-     *        Whether to skip items contained in
-     *        //TODO specify this
-     * @return new BackpackIterator(content)
-     * @note When the content of the backpack is modified, this will not modify
-     * the content of iterators that have already been created.
+     * Creates an instance of BackpackIterator that iterates depth first over the current
+     * content of the backpack and the content of nested backpacks.
+     * @param order
+     *        Whether nested backpacks are handed out before or after their content.
+     * @param maxDepth
+     *        How many levels of nested backpacks are descended into.
+     * @return new BackpackIterator(this, order, maxDepth)
+     * @note The iterator works on the content itself, not a copy. Modifying the
+     * content of the backpack while iterating, other than through the remove method
+     * of the iterator, causes a ConcurrentModificationException.
+     */
+    public BackpackIterator iterator(BackpackIterator.Order order, int maxDepth) {
+        return new BackpackIterator(this, order, maxDepth);
+    }
+
+    /**
+     * Creates a spliterator over the content of this backpack and the content of all
+     * nested backpacks.
+     * @return new BackpackSpliterator(content)
+     * @note The spliterator splits off nested backpacks and ranges of the content index,
+     * so a parallel stream can divide a large tree of backpacks over several threads.
+     * Modifying the content while traversing causes a ConcurrentModificationException.
      */
-    private BackpackIterator iterator(boolean skipNested) {
-        return new BackpackIterator(getContent(), skipNested);
+    public Spliterator<Item> spliterator() {
+        return new BackpackSpliterator(this);
+    }
+
+    /**
+     * Creates a sequential stream of the content of this backpack and the content of
+     * all nested backpacks.
+     * @return | StreamSupport.stream(spliterator(), false)
+     */
+    public Stream<Item> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Creates a parallel stream of the content of this backpack and the content of
+     * all nested backpacks.
+     * @return | StreamSupport.stream(spliterator(), true)
+     */
+    public Stream<Item> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
     }
 
     /**********************************
@@ -267,11 +356,13 @@ public class Backpack extends Container implements Parent {
      */
     @Raw
     private void putItem(Item item) {
-        if(!content.containsKey(item.getIdentifier())) {
-            content.put(item.getIdentifier(),
-                    new ArrayList<>());
+        if (item instanceof Ducat) {
+            putDucats(1);
+            return;
         }
-        content.get(item.getIdentifier()).add(item);
+        content.add(item);
+        adjustContentTotals(item.getTotalWeight(), null, item.getValue());
+        adjustTotalNbOfItems(1 + nbOfNestedItemsIn(item));
     }
 
     /**
@@ -279,35 +370,198 @@ public class Backpack extends Container implements Parent {
      * @pre The referenced item must be in the backpack.
      * @param item
      *        Item to remove.
-     * @effect If there is no other item with the same id in the backpack, the
-     * ArrayList for that identifier is removed.
-     * | if content.get(item.id).size == 1
-     * |    content.remove(item.id)
-     * @effect Else remove the item from the ArrayList
-     * | content.get(item.id).remove(item)
+     * @effect The item is removed from the content index.
+     * | content.remove(item)
      */
     @Raw
     private void removeItem(Item item) {
-        ArrayList<Item> idArray = getContent().get(item.getIdentifier());
-        if (idArray.size() == 1){
-            content.remove(item.getIdentifier());
-        } else {
-            content.get(item.getIdentifier()).remove(item);
+        if (item instanceof Ducat) {
+            takeDucats(1);
+            return;
         }
+        content.remove(item);
+        adjustTotalsForRemoved(item);
+    }
+
+    /**
+     * Adjusts the running totals of this backpack and its parents for the given item,
+     * which has just been removed from the content index.
+     * @param item
+     *        Item that has been removed.
+     */
+    private void adjustTotalsForRemoved(Item item) {
+        adjustContentTotals(null, item.getTotalWeight(), -item.getValue());
+        adjustTotalNbOfItems(-1 - nbOfNestedItemsIn(item));
+    }
+
+    /**
+     * Creates an iterator over the content of this backpack whose remove method drops
+     * the item handed out last.
+     * @return An iterator over the content index.
+     * @note Removing an item through the iterator has the same effect as dropItem, the
+     * running totals are adjusted and the item is dropped to the ground.
+     */
+    Iterator<Item> contentIterator() {
+        Iterator<Item> iterator = content.iterator();
+        return new Iterator<Item>() {
+
+            private Item last = null;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Item next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                Item removed = last;
+                last = null;
+                adjustTotalsForRemoved(removed);
+                removed.drop();
+            }
+        };
     }
 
+    /**********************************
+     * 4.2: Content - Ducats
+     **********************************/
+
+    /**
+     * Getter for the number of ducats lying loose in this backpack.
+     */
+    public long getNbOfDucats() {
+        return nbOfDucats;
+    }
+
+    /**
+     * Adds the given amount of ducats to this backpack.
+     * @param amount
+     *        Number of ducats to be added.
+     * @throws IllegalArgumentException
+     *         If the amount is negative.
+     * @throws InvalidItemException
+     *         If the ducats would exceed the capacity of this backpack or of one of
+     *         its parents.
+     *       | exceedsCapacityWith(DUCAT_WEIGHT * amount)
+     * @throws ArithmeticException
+     *         If the value of the ducats does not fit in an integer. Nothing changes then.
+     * @effect | putDucats(amount)
+     */
+    public void addDucats(long amount)
+            throws IllegalArgumentException, InvalidItemException, ArithmeticException {
+        if (amount < 0) throw new IllegalArgumentException("Amount of ducats is negative!");
+        if (amount == 0) return;
+        if (exceedsCapacityWith(Ducat.weightOf(amount))) {
+            throw new InvalidItemException("Adding these ducats would exceed the capacity of this Backpack.");
+        }
+        putDucats(amount);
+    }
+
+    /**
+     * Removes the given amount of ducats from this backpack, dropping them to the ground.
+     * @param amount
+     *        Number of ducats to be removed.
+     * @throws IllegalArgumentException
+     *         If the amount is negative.
+     * @throws InvalidItemException
+     *         If the backpack holds less ducats than the amount.
+     *       | amount &gt; getNbOfDucats()
+     * @effect | takeDucats(amount)
+     */
+    public void removeDucats(long amount) throws IllegalArgumentException, InvalidItemException {
+        if (amount < 0) throw new IllegalArgumentException("Amount of ducats is negative!");
+        if (amount > getNbOfDucats()) {
+            throw new InvalidItemException("Backpack does not contain that many ducats!");
+        }
+        if (amount == 0) return;
+        takeDucats(amount);
+    }
+
+    /**
+     * Calculates how many of the given amount of ducats this backpack has room for.
+     * @param amount
+     *        Number of ducats that would be added.
+     * @return The largest number of ducats, at most the given amount, that can be added
+     *         without exceeding the capacity of this backpack or of one of its parents.
+     *       | !exceedsCapacityWith(DUCAT_WEIGHT * result) &amp;&amp;
+     *       |     (result == amount || exceedsCapacityWith(DUCAT_WEIGHT * (result + 1)))
+     * @note Found by bisection, so it takes a logarithmic number of capacity checks.
+     */
+    public long getNbOfDucatsFitting(long amount) {
+        long fitting = 0;
+        long exceeding = Math.max(0, amount) + 1;
+        while (exceeding - fitting > 1) {
+            long middle = fitting + (exceeding - fitting) / 2;
+            if (exceedsCapacityWith(Ducat.weightOf(middle))) {
+                exceeding = middle;
+            } else {
+                fitting = middle;
+            }
+        }
+        return fitting;
+    }
+
+    /**
+     * Adds the given amount of ducats to the count of this backpack.
+     * @pre The backpack has room for the ducats.
+     * @param amount
+     *        Number of ducats to be added.
+     * @effect The running totals are adjusted before the count changes, so nothing
+     *         changes if the value of the ducats does not fit in an integer.
+     *       | adjustContentTotals(DUCAT_WEIGHT * amount, null, amount * Ducat.VALUE)
+     * @post | getNbOfDucats() == old.getNbOfDucats() + amount
+     */
+    @Raw
+    private void putDucats(long amount) throws ArithmeticException {
+        int valueDelta = Math.toIntExact(Math.multiplyExact(amount, (long) Ducat.VALUE));
+        long newNbOfDucats = Math.addExact(nbOfDucats, amount);
+        adjustContentTotals(Ducat.weightOf(amount), null, valueDelta);
+        nbOfDucats = newNbOfDucats;
+    }
+
+    /**
+     * Removes the given amount of ducats from the count of this backpack.
+     * @pre | amount &lt;= getNbOfDucats()
+     * @param amount
+     *        Number of ducats to be removed.
+     * @effect | adjustContentTotals(null, DUCAT_WEIGHT * amount, -amount * Ducat.VALUE)
+     * @post | getNbOfDucats() == old.getNbOfDucats() - amount
+     */
+    @Raw
+    private void takeDucats(long amount) {
+        int valueDelta = -Math.toIntExact(amount * Ducat.VALUE);
+        nbOfDucats -= amount;
+        adjustContentTotals(null, Ducat.weightOf(amount), valueDelta);
+    }
+
+    /**
+     * Counter storing the ducats lying loose in this backpack.
+     *
+     * @note All ducats are identical, so like a purse the backpack only counts them and
+     * a torn purse can move all its ducats in at once. Ducats are not stored in the content
+     * index, so they are not counted by getNbOfItems and not handed out by the iterators
+     * and streams of the backpack.
+     */
+    private long nbOfDucats = 0;
+
     /**********************************
      * 4.2: Content - storage
      **********************************/
 
     /**
-     * Makes a shallow copy of the content datastructure of this backpack and returns it.
-     * Shallow copying ensures the content of the backpack cannot be modified outside of
-     * the backpack class, but the references to the items stay consistent.
-     * @return
+     * Returns the content datastructure of this backpack for read-only use.
+     * @return A read-only view of the content index, items can only be added and
+     * removed through the backpack itself.
      */
-    private HashMap<Long, ArrayList<Item>> getContent(){
-        return (HashMap<Long, ArrayList<Item>>) this.content.clone();
+    ItemIndex.View getContent(){
+        return this.content.asView();
     }
 
     /**
@@ -316,10 +570,99 @@ public class Backpack extends Container implements Parent {
      * @note Specification dictates that retrieval of all items with the same identifier
      * has to happen in constant time.
      * Retrieval of items with the same id must happen in linear time.
-     * Thus a hashmap (search O(1)) maps an identifier to an arraylist (search O(n))
-     * with items with the same identifier
+     * Thus an open addressing table on the primitive identifier (search O(1)) holds the
+     * item inline, or a list (search O(n)) if several items share the identifier.
+     * @see ItemIndex
+     */
+    private final ItemIndex content = new ItemIndex();
+
+    /*****************************
+     * 4.4: Running totals
+     *****************************/
+
+    /**
+     * Updates the running weight and value totals of the content of this backpack,
+     * then passes the change on to the parent.
+     * @param added
+     *        Weight that has been added to the content, may be null.
+     * @param removed
+     *        Weight that has been removed from the content, may be null.
+     * @param valueDelta
+     *        Change in the value of the content.
+     * @effect The running totals are adjusted.
+     *       | contentWeight = contentWeight + added - removed
+     *       | contentValue = contentValue + valueDelta
+     * @effect The change is passed on to the parent, as the content of this backpack
+     *         is part of the content of the parent.
+     *       | notifyParentOfChange(added, removed, valueDelta)
+     */
+    @Override
+    public void adjustContentTotals(Weight added, Weight removed, int valueDelta) {
+        adjustOwnContentTotals(added, removed, valueDelta);
+        notifyParentOfChange(added, removed, valueDelta);
+    }
+
+    /**
+     * Updates the running weight and value totals of the content of this backpack only.
+     * @param added
+     *        Weight that has been added to the content, may be null.
+     * @param removed
+     *        Weight that has been removed from the content, may be null.
+     * @param valueDelta
+     *        Change in the value of the content.
+     * @post | contentWeight = contentWeight + added - removed
+     * @post | contentValue = contentValue + valueDelta
+     */
+    void adjustOwnContentTotals(Weight added, Weight removed, int valueDelta) {
+        contentWeight.add(added);
+        contentWeight.subtract(removed);
+        contentValue += valueDelta;
+    }
+
+    /**
+     * Running total of the weight of the content of this backpack, nested content included.
+     *
+     * @note Maintained by putItem and removeItem and by nested containers reporting changes
+     * through notifyParentOfChange, so weight queries do not have to walk the content.
+     */
+    private final WeightAccumulator contentWeight = new WeightAccumulator();
+
+    /**
+     * Running total of the value of the content of this backpack, nested content included.
+     */
+    private int contentValue = 0;
+
+    /**
+     * Updates the running count of the items in this backpack and in every backpack
+     * holding it.
+     * @param delta
+     *        Change in the number of items.
+     * @effect | totalNbOfItems = totalNbOfItems + delta
+     * @effect | if getParent() instanceof Backpack
+     *         |    getParent().adjustTotalNbOfItems(delta)
      */
-    private HashMap<Long, ArrayList<Item>> content;
+    private void adjustTotalNbOfItems(long delta) {
+        // every enclosing backpack counts the nested items too, up to the first non-backpack
+        Parent current = this;
+        while (current instanceof Backpack) {
+            Backpack backpack = (Backpack) current;
+            backpack.totalNbOfItems += delta;
+            current = backpack.getParent();
+        }
+    }
+
+    /**
+     * Returns the number of items nested in the given item.
+     * @return | if item instanceof Backpack return item.getTotalNbOfItems() else return 0
+     */
+    private static long nbOfNestedItemsIn(Item item) {
+        return item instanceof Backpack ? ((Backpack) item).getTotalNbOfItems() : 0;
+    }
+
+    /**
+     * Running count of the items in this backpack, nested content included.
+     */
+    private long totalNbOfItems = 0;
 
     /*****************************
      * 4.4: Weight - total
@@ -337,20 +680,23 @@ public class Backpack extends Container implements Parent {
      * |            sum = sum + getTotalWeight()
      * |        else: sum = sum + getWeight()
      * |    return sum
+     * @note The sum is kept as a running total, so this does not walk the content.
      */
     @Override
     public Weight getWeightOfContents() {
-        BackpackIterator it = this.iterator(true);
-        Weight sum = Weight.kg_0;
-        while(it.hasMoreElements()){
-            Item next = it.nextElement();
-            if(next instanceof Container){
-                sum = sum.add(((Container) next).getTotalWeight());
-            } else {
-                sum = sum.add(next.getWeight());
-            }
-        }
-        return sum;
+        return contentWeight.toWeight();
+    }
+
+    /**
+     * Adds the weight of the content of this backpack to the given accumulator.
+     * @param accumulator
+     *        Accumulator to add the weight to.
+     * @effect The running total of the content weight is added.
+     * | accumulator.addAll(contentWeight)
+     */
+    @Override
+    protected void addWeightOfContentsTo(WeightAccumulator accumulator) {
+        accumulator.addAll(contentWeight);
     }
 
     /*****************************
@@ -376,7 +722,9 @@ public class Backpack extends Container implements Parent {
      */
     public void setOwnValue(int value) {
         if(isValidOwnValue(value)){
+            int valueDelta = value - this.ownValue;
             this.ownValue = value;
+            notifyParentOfChange(null, null, valueDelta);
         }
     }
 
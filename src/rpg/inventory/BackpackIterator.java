@@ -2,77 +2,187 @@ package rpg.inventory;
 
 import java.util.*;
 
-//todo spec for class
 /**
  * An implementation of the Enumeration interface for traversing the
  * items held within a Backpack.
  *
+ * @invar The depth of every item handed out is at most the maximum depth.
+ * | 0 &lt;= depth &lt;= getMaxDepth()
+ *
+ * @note Nested backpacks are traversed depth first with an explicit stack of
+ * content iterators instead of recursion, so arbitrarily deep nesting cannot
+ * overflow the call stack. Every level iterates the content of its backpack
+ * directly, no content is copied.
+ * An iterator created by a backpack can remove the item handed out last from the
+ * backpack holding it, like the remove method of an Iterator.
+ *
  * @author Elias Storme
- * @version 1.0
+ * @version 2.0
  */
 public class BackpackIterator implements Enumeration<Item> {
 
     /*****************************
-     * Constructor
+     * Constants
+     *****************************/
+
+    /**
+     * Maximum depth that places no limit on how deep nested backpacks are traversed.
+     */
+    public static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
+    /**
+     * Enumeration of the orders in which a nested backpack and its content can be
+     * handed out.
+     */
+    public enum Order {
+        //The nested backpack is handed out before its content.
+        preorder,
+        //The nested backpack is handed out after its content.
+        postorder
+    }
+
+    /*****************************
+     * Constructors
      *****************************/
-    //TODO formal spec for constructor
+
     /**
-     * Creates a new BackpackIterator which will iterate over the given
-     * content data structure.
+     * Creates a new BackpackIterator which will iterate over the given content
+     * data structure, descending into nested backpacks up to the given depth.
      * @param content
      *        Content data structure of the backpack constructing this
      *        BackpackIterator.
-     * @effect Sets the internal content attribute to the given one.
-     * @effect The HashMap iterator is constructed for the content.
-     * @effect The ArrayList iterator is constructed for the first element in
-     * the HashMap iterator.
-     */
-    public BackpackIterator(HashMap<Long, ArrayList<Item>> content){
-        this.content = content;
-        hashMapIterator = content.values().iterator();
-        arrayListIterator = hashMapIterator.next().iterator();
+     * @param order
+     *        Whether nested backpacks are handed out before or after their content.
+     * @param maxDepth
+     *        How many levels of nested backpacks are descended into. Zero only
+     *        hands out the given content itself.
+     * @effect The content iterator of the given content is pushed as the first level.
+     * @post If the order is null, preorder is used.
+     * @post If the maximum depth is negative, zero is used.
+     */
+    public BackpackIterator(Iterable<Item> content, Order order, int maxDepth){
+        this.order = order == null ? Order.preorder : order;
+        this.maxDepth = Math.max(0, maxDepth);
+        levels.push(new Level(content.iterator(), null, 0));
     }
 
-    public BackpackIterator(HashMap<Long, ArrayList<Item>> content, boolean skipNested){
-        this(content);
-        this.skipNested = skipNested;
+    /**
+     * Creates a new BackpackIterator which will iterate over the content of the given
+     * backpack, descending into nested backpacks up to the given depth.
+     * @param backpack
+     *        Backpack whose content is iterated.
+     * @param order
+     *        Whether nested backpacks are handed out before or after their content.
+     * @param maxDepth
+     *        How many levels of nested backpacks are descended into.
+     * @effect The content iterator of the given backpack is pushed as the first level,
+     *         so items handed out can be removed.
+     * @post If the order is null, preorder is used.
+     * @post If the maximum depth is negative, zero is used.
+     */
+    BackpackIterator(Backpack backpack, Order order, int maxDepth){
+        this.order = order == null ? Order.preorder : order;
+        this.maxDepth = Math.max(0, maxDepth);
+        levels.push(new Level(backpack.contentIterator(), backpack, 0));
+    }
+
+    /**
+     * Creates a new BackpackIterator which will only iterate over the items held
+     * directly in the given content data structure.
+     * @param content
+     *        Content data structure of the backpack constructing this
+     *        BackpackIterator.
+     * @effect | this(content, Order.preorder, 0)
+     */
+    public BackpackIterator(Iterable<Item> content){
+        this(content, Order.preorder, 0);
+    }
+
+    /**
+     * Creates a new BackpackIterator which will iterate over the given content
+     * data structure.
+     * @param content
+     *        Content data structure of the backpack constructing this
+     *        BackpackIterator.
+     * @param includeNested
+     *        Whether the content of nested backpacks is handed out as well, right
+     *        after the backpack holding it.
+     * @effect | this(content, Order.preorder, includeNested ? UNLIMITED_DEPTH : 0)
+     */
+    public BackpackIterator(Iterable<Item> content, boolean includeNested){
+        this(content, Order.preorder, includeNested ? UNLIMITED_DEPTH : 0);
     }
 
     /*****************************
-     * Nested item iterator
+     * Traversal settings
      *****************************/
 
-    //todo specify this
-    boolean skipNested = false;
+    /**
+     * Getter for the order nested backpacks are handed out in.
+     */
+    public Order getOrder() {
+        return order;
+    }
 
-    BackpackIterator nestedItemIterator = null;
+    /**
+     * Getter for the number of levels of nested backpacks that are descended into.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
 
-    /*****************************
-     * Content
-     *****************************/
-    //todo spec for content
-    private HashMap<Long, ArrayList<Item>> content = null;
+    /**
+     * Variable storing the order nested backpacks are handed out in.
+     */
+    private final Order order;
+
+    /**
+     * Variable storing how many levels of nested backpacks are descended into.
+     */
+    private final int maxDepth;
 
     /*****************************
-     * Subiterators
+     * Traversal state
      *****************************/
 
     /**
-     * The Backpack class uses an ArrayList nested within a HashMap to store it's contents.
-     * Each ArrayList is mapped to an identifier and contains the items with said identifier.
-     * As such, the iterators of both of those classes can be used to iterate over all of
-     * the contents of the backpack.
+     * One level of the traversal: the iterator over the content of a backpack,
+     * the backpack itself and how deep it is nested.
+     */
+    private static final class Level {
+
+        Level(Iterator<Item> content, Backpack owner, int depth) {
+            this.content = content;
+            this.owner = owner;
+            this.depth = depth;
+        }
+
+        final Iterator<Item> content;
+
+        /**
+         * The backpack whose content is iterated, null if the first level iterates
+         * content that was not handed over by its backpack.
+         */
+        final Backpack owner;
+
+        final int depth;
+    }
+
+    /**
+     * Stack of the levels currently being traversed, the deepest on top.
      */
+    private final Deque<Level> levels = new ArrayDeque<>();
 
     /**
-     * Iterator for the HashMap.
+     * The next item to be handed out, null if it has not been looked up yet.
      */
-    private Iterator<ArrayList<Item>> hashMapIterator = null;
+    private Item next = null;
 
     /**
-     * Iterator for the nested ArrayList.
+     * The level whose content iterator handed out the item returned last, null if that
+     * item cannot be removed.
      */
-    private Iterator<Item> arrayListIterator = null;
+    private Level lastLevel = null;
 
     /*****************************
      * Interface methods
@@ -80,20 +190,14 @@ public class BackpackIterator implements Enumeration<Item> {
 
     /**
      * Checks whether the iterator has a next item.
-     * @return If the current arrayListIterator has a next item, return true.
-     *         Else return whether the hashMapIterator has a next item (and as
-     *         such can generate a new arrayListIterator containing at least one
-     *         item.
-     *       | if arrayListIterator.hasNext() return true
-     *       | else return hashMapIterator.hasNext()
+     * @return True if looking up the next item in the traversal finds one.
      */
     @Override
     public boolean hasMoreElements() {
-        if(arrayListIterator.hasNext()){
-            return true;
-        } else {
-            return hashMapIterator.hasNext();
+        if (next == null) {
+            next = advance();
         }
+        return next != null;
     }
 
     /**
@@ -105,25 +209,75 @@ public class BackpackIterator implements Enumeration<Item> {
      */
     @Override
     public Item nextElement() throws NoSuchElementException {
-        if(nestedItemIterator !=  null){
-            if(nestedItemIterator.hasMoreElements()){
-                return nestedItemIterator.nextElement();
+        if (!hasMoreElements()) {
+            throw new NoSuchElementException("No more items in this backpack!");
+        }
+        Item result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Removes the item handed out last from the backpack holding it.
+     * @effect The item is dropped from the backpack holding it.
+     *       | holder.dropItem(item)
+     * @post If the item is a backpack, its content is not handed out anymore.
+     * @throws IllegalStateException
+     *         If no item has been handed out since the last removal, or the next item has
+     *         been looked up since, by calling hasMoreElements.
+     * @throws UnsupportedOperationException
+     *         If this iterator was not created by a backpack, so the content it iterates
+     *         cannot be modified.
+     */
+    public void remove() throws IllegalStateException, UnsupportedOperationException {
+        if (lastLevel == null || next != null) {
+            throw new IllegalStateException("No item to remove!");
+        }
+        // in preorder the content of a backpack handed out last has been pushed already
+        while (levels.peek() != lastLevel) {
+            levels.pop();
+        }
+        Level level = lastLevel;
+        lastLevel = null;
+        level.content.remove();
+    }
+
+    /*****************************
+     * Traversal
+     *****************************/
+
+    /**
+     * Looks up the next item in the traversal.
+     * @return The next item, null if the traversal is finished.
+     * @effect A nested backpack that is not deeper than the maximum depth gets its
+     *         content pushed as a new level.
+     * @effect Levels whose content is exhausted are popped. In postorder the backpack
+     *         owning a popped level is handed out at that point.
+     */
+    private Item advance() {
+        lastLevel = null;
+        while (!levels.isEmpty()) {
+            Level top = levels.peek();
+            if (top.content.hasNext()) {
+                Item item = top.content.next();
+                if (item instanceof Backpack && top.depth < getMaxDepth()) {
+                    Backpack nested = (Backpack) item;
+                    levels.push(new Level(nested.contentIterator(), nested, top.depth + 1));
+                    if (getOrder() == Order.postorder) {
+                        continue;
+                    }
+                }
+                lastLevel = top;
+                return item;
             } else {
-                nestedItemIterator = null;
-                return nextElement();
-            }
-        } else {
-            if (arrayListIterator.hasNext()){
-                Item next = arrayListIterator.next();
-                if (skipNested && next instanceof Backpack){
-                    nestedItemIterator = ((Backpack) next).iterator();
+                levels.pop();
+                if (getOrder() == Order.postorder && top.depth > 0) {
+                    // the content iterator of the level below handed out this backpack last
+                    lastLevel = levels.peek();
+                    return top.owner;
                 }
-                return next;
-            }
-            else {
-                arrayListIterator = hashMapIterator.next().listIterator();
-                return nextElement();
             }
         }
+        return null;
     }
 }
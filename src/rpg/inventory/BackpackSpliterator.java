@@ -0,0 +1,266 @@
+package rpg.inventory;
+
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the items held within a backpack and all backpacks
+ * nested in it.
+ *
+ * @invar Every segment covers a range of slots of the content index of a
+ * single backpack.
+ * | 0 &lt;= segment.from &lt;= segment.to &lt;= segment.index.getNbOfSlots()
+ *
+ * @note The work is kept as a list of segments, ranges of slots in the content
+ * index of one backpack. A nested backpack that is handed out adds a segment for
+ * its own content, so nested containers become separate pieces of work. Splitting
+ * hands over half of the pending segments, or, if there are none, the upper half
+ * of the slot range currently being traversed. A range too small to split has the
+ * content of the backpacks left in it added as pending segments first, so a small
+ * backpack holding a large nested one still splits.
+ * Items are not handed out in any particular order.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+class BackpackSpliterator implements Spliterator<Item> {
+
+    /*****************************
+     * Constants
+     *****************************/
+
+    /**
+     * Smallest number of slots the current range must span before it is split.
+     */
+    private static final int MIN_SPLIT_SLOTS = 16;
+
+    /*****************************
+     * Constructors
+     *****************************/
+
+    /**
+     * Creates a new spliterator over the content of the given backpack and the
+     * content of every backpack nested in it.
+     * @param backpack
+     *        Backpack constructing this spliterator.
+     * @effect All slots of the content index of the backpack are the first segment.
+     */
+    BackpackSpliterator(Backpack backpack) {
+        current = new Segment(backpack);
+    }
+
+    /**
+     * Creates a new spliterator over the given segments.
+     * @param current
+     *        Segment to traverse first, may be null.
+     * @param pending
+     *        Segments to traverse afterwards.
+     */
+    private BackpackSpliterator(Segment current, Deque<Segment> pending) {
+        this.current = current;
+        this.pending.addAll(pending);
+    }
+
+    /*****************************
+     * Traversal state
+     *****************************/
+
+    /**
+     * A range of slots in the content index of one backpack.
+     */
+    private static final class Segment {
+
+        Segment(Backpack owner, int from, int to) {
+            this.owner = owner;
+            this.index = owner.getContent();
+            this.from = from;
+            this.to = to;
+            this.expectedModCount = index.getModCount();
+        }
+
+        Segment(Backpack owner) {
+            this(owner, 0, owner.getContent().getNbOfSlots());
+        }
+
+        /**
+         * The backpack whose content index the range lies in.
+         */
+        final Backpack owner;
+
+        final ItemIndex.View index;
+
+        /**
+         * Slot being traversed, the slots before it have been handed out.
+         */
+        int from;
+
+        /**
+         * Slot after the last slot of the range.
+         */
+        int to;
+
+        /**
+         * Position in the slot being traversed.
+         */
+        int position = 0;
+
+        final int expectedModCount;
+
+        /**
+         * Whether the content of the backpacks left in the range has been added as
+         * pending segments already.
+         */
+        boolean nestedPending = false;
+
+        /**
+         * Estimates the number of items left in this segment, the content of the nested
+         * backpacks left in it included, assuming items are spread evenly over the slots.
+         */
+        long estimateSize() {
+            int nbOfSlots = index.getNbOfSlots();
+            if (nbOfSlots == 0 || from >= to) return 0;
+            long nbOfItems = nestedPending ? index.size() : owner.getTotalNbOfItems();
+            return nbOfItems * (to - from) / nbOfSlots;
+        }
+    }
+
+    /**
+     * The segment currently being traversed, null if none is.
+     */
+    private Segment current;
+
+    /**
+     * Segments still to be traversed.
+     */
+    private final Deque<Segment> pending = new ArrayDeque<>();
+
+    /*****************************
+     * Interface methods
+     *****************************/
+
+    /**
+     * Hands the next item to the given action.
+     * @param action
+     *        Action to perform on the item.
+     * @return True if an item was left.
+     * @effect If the item is a backpack, its content is added as a pending segment.
+     * @throws ConcurrentModificationException
+     *         If the content index being traversed has been modified.
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super Item> action) {
+        if (action == null) {
+            throw new NullPointerException("Action contains null reference!");
+        }
+        while (current != null || !pending.isEmpty()) {
+            if (current == null) {
+                current = pending.poll();
+            }
+            Segment segment = current;
+            if (segment.index.getModCount() != segment.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            while (segment.from < segment.to) {
+                if (segment.position < segment.index.getNbOfItemsAt(segment.from)) {
+                    Item item = segment.index.getItemAt(segment.from, segment.position++);
+                    if (item instanceof Backpack && !segment.nestedPending) {
+                        pending.push(new Segment((Backpack) item));
+                    }
+                    action.accept(item);
+                    return true;
+                }
+                segment.from++;
+                segment.position = 0;
+            }
+            current = null;
+        }
+        return false;
+    }
+
+    /**
+     * Splits off part of the remaining items into a new spliterator.
+     * @effect If there is no pending segment and the current range spans fewer than
+     *         twice the minimum number of slots, the content of the backpacks left in
+     *         the current range is added as pending segments.
+     * @return Null if there is still no pending segment and the current range spans
+     *         fewer than twice the minimum number of slots.
+     * @return A spliterator over half of the pending segments, if there are any.
+     * @return A spliterator over the upper half of the slots of the current
+     *         range otherwise.
+     */
+    @Override
+    public Spliterator<Item> trySplit() {
+        if (pending.isEmpty() && current != null
+                && current.to - (current.from + 1) < 2 * MIN_SPLIT_SLOTS) {
+            addNestedOfCurrent();
+        }
+        if (!pending.isEmpty()) {
+            Deque<Segment> split = new ArrayDeque<>();
+            int nbToSplit = (pending.size() + 1) / 2;
+            for (int i = 0; i < nbToSplit; i++) {
+                split.push(pending.pollLast());
+            }
+            Segment first = split.poll();
+            return new BackpackSpliterator(first, split);
+        }
+        if (current == null) {
+            return null;
+        }
+        // the slot being traversed may be partially handed out, it stays here
+        int lo = current.from + 1;
+        if (current.to - lo < 2 * MIN_SPLIT_SLOTS) {
+            return null;
+        }
+        int mid = (lo + current.to) >>> 1;
+        Segment upper = new Segment(current.owner, mid, current.to);
+        current.to = mid;
+        return new BackpackSpliterator(upper, new ArrayDeque<>());
+    }
+
+    /**
+     * Adds the content of every non-empty backpack left in the current range as a
+     * pending segment, so it can be split off before its backpack is handed out.
+     * @throws ConcurrentModificationException
+     *         If the content index of the current range has been modified.
+     */
+    private void addNestedOfCurrent() {
+        Segment segment = current;
+        if (segment.nestedPending) return;
+        if (segment.index.getModCount() != segment.expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        int position = segment.position;
+        for (int slot = segment.from; slot < segment.to; slot++, position = 0) {
+            for (; position < segment.index.getNbOfItemsAt(slot); position++) {
+                Item item = segment.index.getItemAt(slot, position);
+                if (item instanceof Backpack && ((Backpack) item).getNbOfItems() > 0) {
+                    pending.push(new Segment((Backpack) item));
+                }
+            }
+        }
+        segment.nestedPending = true;
+    }
+
+    /**
+     * Estimates the number of items left, the content of nested backpacks included.
+     */
+    @Override
+    public long estimateSize() {
+        long estimate = current == null ? 0 : current.estimateSize();
+        for (Segment segment : pending) {
+            estimate += segment.estimateSize();
+        }
+        return estimate;
+    }
+
+    /**
+     * Every item is held by only one backpack, so items are distinct and never null.
+     */
+    @Override
+    public int characteristics() {
+        return DISTINCT | NONNULL;
+    }
+}
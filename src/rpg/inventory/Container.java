@@ -2,7 +2,9 @@ package rpg.inventory;
 
 import rpg.exception.InvalidItemException;
 import rpg.Mobile;
+import rpg.value.Unit;
 import rpg.value.Weight;
+import rpg.value.WeightAccumulator;
 
 /**
  * A superclass of containers to contain a set of items.
@@ -16,7 +18,7 @@ public abstract class Container extends Item implements hasParent {
 
     public Container(Weight weight, Weight capacity) {
         super(weight);
-
+        this.capacity = capacity;
     }
 
     /*****************************
@@ -39,11 +41,69 @@ public abstract class Container extends Item implements hasParent {
     /**
      * Calculates the total weight of the container.
      *
-     * @return The weight of the container plus the weight of the contents.
-     * | return getWeight + getWeightOfContents()
+     * @return The weight of the container plus the weight of the contents, in kilograms.
+     * | return getWeight().toUnit(Unit.kg) + getWeightOfContents()
+     * @note Summed in kilograms, the unit of the running totals of backpacks and mobiles.
+     * The total a parent added for this container is then exactly the total it subtracts
+     * again later, also after weight has been added in another unit in between.
      */
+    @Override
     public Weight getTotalWeight() {
-        return getWeight().add(getWeightOfContents());
+        WeightAccumulator total = new WeightAccumulator(Unit.kg);
+        addTotalWeightTo(total);
+        return total.toWeight();
+    }
+
+    /**
+     * Adds the total weight of this container to the given accumulator.
+     *
+     * @param accumulator Accumulator to add the weight to.
+     * @effect The weight of the container itself and the weight of the contents
+     * are added to the accumulator.
+     * | accumulator.add(getWeight())
+     * | addWeightOfContentsTo(accumulator)
+     */
+    public void addTotalWeightTo(WeightAccumulator accumulator) {
+        accumulator.add(getWeight());
+        addWeightOfContentsTo(accumulator);
+    }
+
+    /**
+     * Adds the weight of all the items this container contains to the given
+     * accumulator.
+     *
+     * @param accumulator Accumulator to add the weight to.
+     * @effect | accumulator.add(getWeightOfContents())
+     * @note Subclasses override this to add the items one by one, so summing
+     * a tree of containers does not create a weight per container.
+     */
+    protected void addWeightOfContentsTo(WeightAccumulator accumulator) {
+        accumulator.add(getWeightOfContents());
+    }
+
+    /**
+     * Informs the parent of this container that the total weight or value of
+     * this container has changed.
+     *
+     * @param added      Weight that has been added to this container, may be null.
+     * @param removed    Weight that has been removed from this container, may be null.
+     * @param valueDelta Change in the total value of this container.
+     * @effect If the container has a parent, it adjusts its running totals.
+     * | if hasParent()
+     * |    getParent().adjustContentTotals(added, removed, valueDelta)
+     * @note The chain of nested backpacks is walked with a loop, so deeply nested
+     * backpacks do not overflow the call stack.
+     */
+    void notifyParentOfChange(Weight added, Weight removed, int valueDelta) {
+        Parent parent = getParent();
+        while (parent instanceof Backpack) {
+            Backpack backpack = (Backpack) parent;
+            backpack.adjustOwnContentTotals(added, removed, valueDelta);
+            parent = backpack.getParent();
+        }
+        if (parent != null) {
+            parent.adjustContentTotals(added, removed, valueDelta);
+        }
     }
 
     /*****************************
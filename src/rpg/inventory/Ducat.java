@@ -3,8 +3,7 @@ package rpg.inventory;
 import rpg.utility.IDGenerator;
 import rpg.value.Unit;
 import rpg.value.Weight;
-
-import java.util.Stack;
+import rpg.value.WeightAccumulator;
 
 /**
  * A class of ducats to be used as currency in the game.
@@ -21,24 +20,22 @@ public class Ducat extends Item {
      * @effect Uses the superclass constructor to set value and weight
      * to the predefined constants for a ducat.
      * |
+     * @note Ducats are not registered in the item registry. They all share the identifier
+     * -1 and cannot be told apart, so looking one up by identifier is of no use.
      */
     public Ducat() {
-        super(1, DUCAT_WEIGHT);
+        super(DUCAT_WEIGHT);
     }
 
     /**
-     * Creates a stack containing the given amount of ducats.
-     * @param amount
-     *        Amount of ducats the stack has to contain.
-     * @return A stack of length amount containing ducats
-     * |
+     * Shared instance of ducat.
+     *
+     * @note All ducats are identical, so purses and backpacks only count their ducats
+     * (see addDucats and removeDucats) and use this instance whenever a single ducat has to
+     * be passed around.
      */
-    public Stack<Ducat> Ducat(int amount){
-        Stack<Ducat> ducats = new Stack<>();
-        for (int i = 0; i < amount; i++) {
-            ducats.add(new Ducat());
-        }
-        return ducats;
+    public static Ducat getFlyweight() {
+        return flyweight;
     }
 
     /*****************************
@@ -53,9 +50,24 @@ public class Ducat extends Item {
      * | return 1
      */
     public int getOwnValue() {
-        return this.value;
+        return VALUE;
     }
 
+    /**
+     * Returns the total value of this ducat.
+     *
+     * @return | return getOwnValue()
+     */
+    @Override
+    public int getValue() {
+        return getOwnValue();
+    }
+
+    /**
+     * Constant declaring the value of one ducat.
+     */
+    public static final int VALUE = 1;
+
     /*****************************
      * Identification
      *****************************/
@@ -93,4 +105,37 @@ public class Ducat extends Item {
      * Constant declaring the weight of one ducat.
      */
     public static Weight DUCAT_WEIGHT = new Weight(50, Unit.g);
+
+    /**
+     * Calculates the weight of the given amount of ducats.
+     *
+     * @param amount Number of ducats.
+     * @return | return DUCAT_WEIGHT * amount
+     * @throws ArithmeticException If the weight cannot be represented by a weight.
+     */
+    static Weight weightOf(long amount) {
+        return new WeightAccumulator(DUCAT_WEIGHT.getUnit())
+                .add(DUCAT_WEIGHT, amount)
+                .toWeight();
+    }
+
+    /*****************************
+     * Drop
+     *****************************/
+
+    /**
+     * Ducats have no knowledge of their parent, so nothing has to happen when
+     * one is dropped.
+     */
+    @Override
+    public void drop() {
+    }
+
+    /**
+     * The shared instance of ducat.
+     *
+     * @note Declared last so the weight constant and the IDGenerator are initialised
+     * before it is constructed.
+     */
+    private static final Ducat flyweight = new Ducat();
 }
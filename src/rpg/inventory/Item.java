@@ -26,6 +26,9 @@ public abstract class Item {
      * of the weight attribute. It is not possible to create an instance of weight
      * with a negative numeral.
      * Checking for a null reference is the only needed check here.
+     * @note The item is not registered here, the constructor of the subclass has not
+     * run yet. Concrete subclasses call registerIfConstructed at the end of their
+     * constructors instead.
      */
     public Item(Weight weight) {
         if (weight != null) this.weight = weight;
@@ -33,6 +36,25 @@ public abstract class Item {
         this.identifier = getIDGenerator().generateID();
     }
 
+    /**
+     * Registers this item once it has been constructed completely.
+     *
+     * @param constructed
+     *        Class whose constructor calls this method as its last statement.
+     * @effect If the given class is the class of this item, so no constructor of a
+     * subclass is still to run, and the item registry is enabled, the item is registered
+     * under its identifier.
+     * | if getClass() == constructed && ItemRegistry.isEnabled()
+     * |    ItemRegistry.register(this)
+     * @note Registering publishes the item to other threads, so it must not happen
+     * before every field has been initialised.
+     */
+    final void registerIfConstructed(Class<? extends Item> constructed) {
+        if (getClass() == constructed && ItemRegistry.isEnabled()) {
+            ItemRegistry.register(this);
+        }
+    }
+
     /*****************************
      * Value
      *****************************/
@@ -61,6 +83,17 @@ public abstract class Item {
         return this.weight;
     }
 
+    /**
+     * Retrieves the weight this item adds to whatever holds it.
+     *
+     * @return The own weight of the item.
+     * | return getWeight()
+     * @note Containers override this to include the weight of their contents.
+     */
+    public Weight getTotalWeight() {
+        return getWeight();
+    }
+
     /**
      * Variable for storing the weight of this item.
      */
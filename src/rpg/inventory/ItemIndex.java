@@ -0,0 +1,528 @@
+package rpg.inventory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A hash table mapping primitive long identifiers to the items carrying them,
+ * used by backpacks to store their content.
+ *
+ * @invar Every slot is either empty, holds a single item or holds a list of at
+ * least two items sharing the identifier stored in the key of the slot.
+ * @invar The number of occupied slots never exceeds two thirds of the table.
+ *
+ * @note Most identifiers are unique, so an item is stored inline in its slot and
+ * an ArrayList is only created when a second item with the same identifier is
+ * added (ducats all share the identifier -1). Keys are kept in a long array so
+ * looking up an identifier does not box it and only touches two arrays.
+ * Collisions are resolved with linear probing, removals shift the following
+ * entries back so no tombstones are needed.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+class ItemIndex implements Iterable<Item> {
+
+    /*****************************
+     * Constants
+     *****************************/
+
+    /**
+     * Number of slots a new index starts with. Must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Multiplier used to spread identifiers over the table. Identifiers like
+     * multiples of six or powers of two would otherwise all land in a few slots.
+     */
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    /*****************************
+     * Constructor
+     *****************************/
+
+    /**
+     * Creates a new, empty index.
+     */
+    ItemIndex() {
+        keys = new long[INITIAL_CAPACITY];
+        slots = new Object[INITIAL_CAPACITY];
+        shift = 64 - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+    }
+
+    /*****************************
+     * Storage
+     *****************************/
+
+    /**
+     * Identifiers of the occupied slots.
+     */
+    private long[] keys;
+
+    /**
+     * Content of the slots: null if empty, an Item if one item has the identifier,
+     * an ArrayList of items if several have it.
+     */
+    private Object[] slots;
+
+    /**
+     * Number of bits a mixed identifier is shifted right to obtain a slot index.
+     */
+    private int shift;
+
+    /**
+     * Number of occupied slots.
+     */
+    private int occupied = 0;
+
+    /**
+     * Number of items in the index.
+     */
+    private int size = 0;
+
+    /**
+     * Number of structural modifications, used to make iterators fail fast.
+     */
+    private int modCount = 0;
+
+    /*****************************
+     * Inspectors
+     *****************************/
+
+    /**
+     * Returns the number of items in the index.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the given item is in the index.
+     *
+     * @param item Item to look for.
+     * @return True if the slot for the identifier of the item holds the item.
+     */
+    boolean contains(Item item) {
+        int index = indexOf(item.getIdentifier());
+        if (index < 0) return false;
+        Object slot = slots[index];
+        if (slot instanceof Item) return slot == item;
+        return ((ArrayList<?>) slot).contains(item);
+    }
+
+    /**
+     * Retrieves all items with the given identifier.
+     *
+     * @param identifier Identifier to look for.
+     * @return A read-only list of the items with the given identifier, empty
+     * if there are none.
+     */
+    @SuppressWarnings("unchecked")
+    List<Item> get(long identifier) {
+        int index = indexOf(identifier);
+        if (index < 0) return Collections.emptyList();
+        Object slot = slots[index];
+        if (slot instanceof Item) return Collections.singletonList((Item) slot);
+        return Collections.unmodifiableList((ArrayList<Item>) slot);
+    }
+
+    /*****************************
+     * Slot access
+     *****************************/
+
+    /**
+     * Returns the number of slots in the table, occupied or not.
+     */
+    int getNbOfSlots() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the number of structural modifications made to the index so far.
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Returns the number of items held in the slot at the given index.
+     *
+     * @param slot Index of the slot, between zero and the number of slots.
+     * @return 0 if the slot is empty, 1 if it holds an item, the size of the
+     * list otherwise.
+     */
+    int getNbOfItemsAt(int slot) {
+        Object current = slots[slot];
+        if (current == null) return 0;
+        if (current instanceof Item) return 1;
+        return ((ArrayList<?>) current).size();
+    }
+
+    /**
+     * Returns the item at the given position in the slot at the given index.
+     *
+     * @param slot     Index of the slot.
+     * @param position Position of the item in the slot.
+     * @pre | 0 &lt;= position &lt; getNbOfItemsAt(slot)
+     */
+    Item getItemAt(int slot, int position) {
+        Object current = slots[slot];
+        if (current instanceof Item) return (Item) current;
+        return (Item) ((ArrayList<?>) current).get(position);
+    }
+
+    /*****************************
+     * Mutators
+     *****************************/
+
+    /**
+     * Adds the given item to the index.
+     *
+     * @param item Item to be added.
+     * @pre The item is not in the index yet.
+     * | !contains(item)
+     */
+    @SuppressWarnings("unchecked")
+    void add(Item item) {
+        long key = item.getIdentifier();
+        int index = slotOf(key);
+        while (slots[index] != null && keys[index] != key) {
+            index = (index + 1) & (slots.length - 1);
+        }
+        Object slot = slots[index];
+        if (slot == null) {
+            keys[index] = key;
+            slots[index] = item;
+            occupied++;
+        } else if (slot instanceof Item) {
+            ArrayList<Item> list = new ArrayList<>(2);
+            list.add((Item) slot);
+            list.add(item);
+            slots[index] = list;
+        } else {
+            ((ArrayList<Item>) slot).add(item);
+        }
+        size++;
+        modCount++;
+        if (occupied * 3 > slots.length * 2) grow();
+    }
+
+    /**
+     * Removes the given item from the index.
+     *
+     * @param item Item to be removed.
+     * @return True if the item was in the index.
+     */
+    @SuppressWarnings("unchecked")
+    boolean remove(Item item) {
+        int index = indexOf(item.getIdentifier());
+        if (index < 0) return false;
+        Object slot = slots[index];
+        if (slot instanceof Item) {
+            if (slot != item) return false;
+            deleteSlot(index);
+        } else {
+            ArrayList<Item> list = (ArrayList<Item>) slot;
+            if (!list.remove(item)) return false;
+            if (list.size() == 1) slots[index] = list.get(0);
+        }
+        size--;
+        modCount++;
+        return true;
+    }
+
+    /*****************************
+     * Auxiliary methods
+     *****************************/
+
+    /**
+     * Calculates the preferred slot for the given identifier.
+     */
+    private int slotOf(long key) {
+        return (int) ((key * GOLDEN_RATIO) >>> shift);
+    }
+
+    /**
+     * Finds the slot holding the given identifier.
+     *
+     * @return The index of the slot, -1 if the identifier is not in the index.
+     */
+    private int indexOf(long key) {
+        int mask = slots.length - 1;
+        int index = slotOf(key);
+        while (slots[index] != null) {
+            if (keys[index] == key) return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Empties the slot at the given index, moving back the entries that follow
+     * it in the same probe sequence so every entry stays reachable.
+     */
+    private void deleteSlot(int index) {
+        int mask = slots.length - 1;
+        int free = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            if (slots[next] == null) break;
+            int preferred = slotOf(keys[next]);
+            // the entry may move to the free slot unless its preferred slot lies
+            // cyclically in (free, next]
+            boolean stays = free <= next ?
+                    (free < preferred && preferred <= next) :
+                    (free < preferred || preferred <= next);
+            if (!stays) {
+                keys[free] = keys[next];
+                slots[free] = slots[next];
+                free = next;
+            }
+        }
+        slots[free] = null;
+        occupied--;
+    }
+
+    /**
+     * Doubles the number of slots and reinserts all entries.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        Object[] oldSlots = slots;
+        keys = new long[oldSlots.length * 2];
+        slots = new Object[oldSlots.length * 2];
+        shift--;
+        int mask = slots.length - 1;
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] == null) continue;
+            int index = slotOf(oldKeys[i]);
+            while (slots[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            slots[index] = oldSlots[i];
+        }
+    }
+
+    /*****************************
+     * Read-only view
+     *****************************/
+
+    /**
+     * Returns a read-only view of this index.
+     */
+    View asView() {
+        return view;
+    }
+
+    /**
+     * The read-only view of this index.
+     */
+    private final View view = new View();
+
+    /**
+     * A read-only view of an index, reflecting every change made to the index but
+     * offering no way to make changes itself.
+     *
+     * @note Handed out by backpacks to their iterators and spliterators, so code
+     * traversing the content of a backpack can never add or remove items behind
+     * the back of its running totals.
+     */
+    final class View implements Iterable<Item> {
+
+        private View() {
+        }
+
+        /**
+         * Returns the number of items in the index.
+         */
+        int size() {
+            return ItemIndex.this.size();
+        }
+
+        /**
+         * Checks whether the given item is in the index.
+         */
+        boolean contains(Item item) {
+            return ItemIndex.this.contains(item);
+        }
+
+        /**
+         * Retrieves all items in the index with the given identifier.
+         */
+        List<Item> get(long identifier) {
+            return ItemIndex.this.get(identifier);
+        }
+
+        /**
+         * Returns the number of slots in the table of the index, occupied or not.
+         */
+        int getNbOfSlots() {
+            return ItemIndex.this.getNbOfSlots();
+        }
+
+        /**
+         * Returns the number of structural modifications made to the index so far.
+         */
+        int getModCount() {
+            return ItemIndex.this.getModCount();
+        }
+
+        /**
+         * Returns the number of items held in the slot of the index at the given index.
+         */
+        int getNbOfItemsAt(int slot) {
+            return ItemIndex.this.getNbOfItemsAt(slot);
+        }
+
+        /**
+         * Returns the item at the given position in the slot of the index at the
+         * given index.
+         */
+        Item getItemAt(int slot, int position) {
+            return ItemIndex.this.getItemAt(slot, position);
+        }
+
+        /**
+         * Returns a read-only iterator over all items in the index.
+         */
+        @Override
+        public Iterator<Item> iterator() {
+            Iterator<Item> iterator = ItemIndex.this.iterator();
+            return new Iterator<Item>() {
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Item next() {
+                    return iterator.next();
+                }
+            };
+        }
+    }
+
+    /*****************************
+     * Iteration
+     *****************************/
+
+    /**
+     * Returns an iterator over all items in the index.
+     *
+     * @note The iterator throws a ConcurrentModificationException if the index is
+     * modified while iterating, other than through the remove method of the iterator
+     * itself.
+     */
+    @Override
+    public Iterator<Item> iterator() {
+        return new IndexIterator();
+    }
+
+    /**
+     * An iterator over the slots of the index, that can remove the item handed out last.
+     *
+     * @note Removing the only item of a slot shifts the entries following it in its probe
+     * run back, so the iterator looks at that slot again. If the run continues past the
+     * end of the table, entries from the start of the table, which have been handed out
+     * already, would be shifted behind the iterator. The iterator then copies the items
+     * it has not handed out yet and continues over the copy.
+     */
+    private final class IndexIterator implements Iterator<Item> {
+
+        private int slot = 0;
+        private int inList = 0;
+        private int expectedModCount = modCount;
+
+        /**
+         * The item handed out last, null if there is none or it has been removed.
+         */
+        private Item last = null;
+
+        /**
+         * Slot and position in that slot of the item handed out last.
+         */
+        private int lastSlot = -1;
+        private int lastInList = 0;
+
+        /**
+         * Items still to be handed out, null while the iterator walks the slots.
+         */
+        private ArrayDeque<Item> remaining = null;
+
+        @Override
+        public boolean hasNext() {
+            if (remaining != null) return !remaining.isEmpty();
+            while (slot < slots.length) {
+                Object current = slots[slot];
+                if (current instanceof Item && inList == 0) return true;
+                if (current instanceof ArrayList && inList < ((ArrayList<?>) current).size())
+                    return true;
+                slot++;
+                inList = 0;
+            }
+            return false;
+        }
+
+        @Override
+        public Item next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            if (remaining != null) {
+                last = remaining.poll();
+                return last;
+            }
+            Object current = slots[slot];
+            lastSlot = slot;
+            lastInList = inList;
+            if (current instanceof Item) {
+                inList = 1;
+                last = (Item) current;
+            } else {
+                last = (Item) ((ArrayList<?>) current).get(inList++);
+            }
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) throw new IllegalStateException("No item to remove!");
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (remaining == null && slots[lastSlot] instanceof Item && runPassesEnd(lastSlot)) {
+                remaining = new ArrayDeque<>();
+                for (int i = lastSlot + 1; i < slots.length; i++) {
+                    for (int position = 0; position < getNbOfItemsAt(i); position++) {
+                        remaining.add(getItemAt(i, position));
+                    }
+                }
+            }
+            ItemIndex.this.remove(last);
+            if (remaining == null) {
+                // look at the slot again, its next item or an entry shifted into it
+                slot = lastSlot;
+                inList = lastInList;
+            }
+            expectedModCount = modCount;
+            last = null;
+        }
+
+        /**
+         * Checks whether the probe run holding the given slot continues past the end of
+         * the table.
+         */
+        private boolean runPassesEnd(int index) {
+            while (++index < slots.length) {
+                if (slots[index] == null) return false;
+            }
+            return slots[0] != null;
+        }
+    }
+}
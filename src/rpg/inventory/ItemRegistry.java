@@ -0,0 +1,418 @@
+package rpg.inventory;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A registry of all items created while it is enabled, looked up by identifier.
+ *
+ * @invar Every live item created while the registry was enabled can be looked up by
+ * its identifier.
+ * | for each item created while isEnabled():
+ * |    getAll(item.getIdentifier()).contains(item)
+ *
+ * @note Items are held through weak references, so registering an item never keeps
+ * it alive: a dropped item is collected as usual and its entry is removed the next
+ * time the registry is used. The table is split in segments, each a hash table from
+ * primitive long identifiers to the references, probed linearly like ItemIndex and
+ * guarded by its own lock, so items created on different threads rarely wait for each
+ * other. Identifiers shared by several items, like the powers of two a backpack generator
+ * restarts with, get a list of references. Every reference remembers its position in
+ * that list, so removing it swaps the last reference into its place instead of shifting
+ * the list. Ducats are not registered at all, see Ducat#Ducat().
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+public final class ItemRegistry {
+
+    /*****************************
+     * Constants
+     *****************************/
+
+    /**
+     * Name of the system property that enables the registry when set to true.
+     */
+    public static final String ENABLED_PROPERTY = "rpg.item.registry";
+
+    /**
+     * Number of segments, must be a power of two.
+     */
+    private static final int NB_OF_SEGMENTS = 16;
+
+    /**
+     * Number of bits of a mixed identifier that select its segment.
+     */
+    private static final int SEGMENT_BITS = Integer.numberOfTrailingZeros(NB_OF_SEGMENTS);
+
+    /**
+     * Number of slots a new segment starts with, must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Multiplier used to spread identifiers over the segments and their slots.
+     */
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    /*****************************
+     * Constructor
+     *****************************/
+
+    /**
+     * The registry only has static members.
+     */
+    private ItemRegistry() {
+    }
+
+    /*****************************
+     * Enabling
+     *****************************/
+
+    /**
+     * Checks whether newly created items are registered.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether newly created items are registered.
+     *
+     * @param enabled
+     *        Whether items are to be registered.
+     * @post | isEnabled() == enabled
+     * @note Items created while the registry is disabled are never registered, items
+     * registered before disabling it can still be looked up.
+     */
+    public static void setEnabled(boolean enabled) {
+        ItemRegistry.enabled = enabled;
+    }
+
+    /**
+     * Variable storing whether newly created items are registered.
+     */
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /*****************************
+     * Registration
+     *****************************/
+
+    /**
+     * Registers the given item under its identifier.
+     *
+     * @param item
+     *        Item to be registered, its identifier must be set.
+     * @effect Entries of items that have been collected are removed.
+     * @post | getAll(item.getIdentifier()).contains(item)
+     * @note Called by Item.registerIfConstructed at the end of the constructor of the
+     * class of the item, so other threads never look up an item that is still being
+     * constructed.
+     */
+    static void register(Item item) {
+        expungeCollected();
+        long identifier = item.getIdentifier();
+        segmentFor(identifier).add(identifier, new Entry(item, identifier, collected));
+    }
+
+    /**
+     * Removes the given item from the registry, the same way the entry of a collected
+     * item is removed.
+     *
+     * @param item
+     *        Item to be removed.
+     * @post | !getAll(item.getIdentifier()).contains(item)
+     * @note The references to the item are put on the queue of collected items and the
+     * queue is processed, so this takes the same path as the entry of an item that has
+     * been collected.
+     */
+    public static void unregister(Item item) {
+        if (item == null) return;
+        segmentFor(item.getIdentifier()).enqueueEntriesOf(item);
+        expungeCollected();
+    }
+
+    /*****************************
+     * Lookup
+     *****************************/
+
+    /**
+     * Looks up an item with the given identifier.
+     *
+     * @param identifier
+     *        Identifier to look for.
+     * @return A live registered item with the given identifier, null if there is none.
+     *       | if getAll(identifier).isEmpty() return null
+     *       | else getAll(identifier).contains(result)
+     */
+    public static Item get(long identifier) {
+        return segmentFor(identifier).get(identifier);
+    }
+
+    /**
+     * Looks up all items with the given identifier.
+     *
+     * @param identifier
+     *        Identifier to look for.
+     * @return A new list of the live registered items with the given identifier.
+     */
+    public static List<Item> getAll(long identifier) {
+        return segmentFor(identifier).getAll(identifier);
+    }
+
+    /**
+     * Returns the number of registered items, items that have been collected but whose
+     * entries have not been removed yet included.
+     */
+    public static int size() {
+        expungeCollected();
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /*****************************
+     * Storage
+     *****************************/
+
+    /**
+     * A weak reference to a registered item that remembers the identifier it is
+     * registered under, so its entry can be found once the item is collected.
+     */
+    private static final class Entry extends WeakReference<Item> {
+
+        Entry(Item item, long identifier, ReferenceQueue<Item> queue) {
+            super(item, queue);
+            this.identifier = identifier;
+        }
+
+        final long identifier;
+
+        /**
+         * Position of this entry in the list of its slot, guarded by the lock of the
+         * segment holding it.
+         */
+        int position = 0;
+    }
+
+    /**
+     * Segments of the registry, selected by the high bits of a mixed identifier.
+     */
+    private static final Segment[] segments = new Segment[NB_OF_SEGMENTS];
+
+    static {
+        for (int i = 0; i < NB_OF_SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Queue the references of collected items are put on.
+     */
+    private static final ReferenceQueue<Item> collected = new ReferenceQueue<>();
+
+    /**
+     * Selects the segment for the given identifier.
+     */
+    private static Segment segmentFor(long identifier) {
+        return segments[(int) ((identifier * GOLDEN_RATIO) >>> (64 - SEGMENT_BITS))];
+    }
+
+    /**
+     * Removes the entries of all items that have been collected so far.
+     */
+    private static void expungeCollected() {
+        Entry entry;
+        while ((entry = (Entry) collected.poll()) != null) {
+            segmentFor(entry.identifier).remove(entry);
+        }
+    }
+
+    /**
+     * A hash table from identifiers to the entries registered under them.
+     *
+     * @invar Every slot is either empty, holds a single entry or holds a list of at
+     * least two entries registered under the identifier stored in the key of the slot.
+     */
+    private static final class Segment {
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+
+        /**
+         * Content of the slots: null if empty, an Entry or an ArrayList of entries.
+         */
+        private Object[] slots = new Object[INITIAL_CAPACITY];
+
+        /**
+         * Number of bits a mixed identifier, without the bits selecting the segment,
+         * is shifted right to obtain a slot index.
+         */
+        private int shift = 64 - Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+
+        private int occupied = 0;
+
+        private int size = 0;
+
+        synchronized int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void add(long key, Entry entry) {
+            int index = slotOf(key);
+            while (slots[index] != null && keys[index] != key) {
+                index = (index + 1) & (slots.length - 1);
+            }
+            Object slot = slots[index];
+            if (slot == null) {
+                keys[index] = key;
+                slots[index] = entry;
+                occupied++;
+            } else if (slot instanceof Entry) {
+                ArrayList<Entry> list = new ArrayList<>(2);
+                ((Entry) slot).position = 0;
+                list.add((Entry) slot);
+                entry.position = 1;
+                list.add(entry);
+                slots[index] = list;
+            } else {
+                ArrayList<Entry> list = (ArrayList<Entry>) slot;
+                entry.position = list.size();
+                list.add(entry);
+            }
+            size++;
+            if (occupied * 3 > slots.length * 2) grow();
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized Item get(long key) {
+            int index = indexOf(key);
+            if (index < 0) return null;
+            Object slot = slots[index];
+            if (slot instanceof Entry) return ((Entry) slot).get();
+            for (Entry entry : (ArrayList<Entry>) slot) {
+                Item item = entry.get();
+                if (item != null) return item;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized List<Item> getAll(long key) {
+            int index = indexOf(key);
+            if (index < 0) return new ArrayList<>(0);
+            Object slot = slots[index];
+            if (slot instanceof Entry) {
+                Item item = ((Entry) slot).get();
+                return item == null ? new ArrayList<>(0) : new ArrayList<>(Collections.singletonList(item));
+            }
+            ArrayList<Entry> entries = (ArrayList<Entry>) slot;
+            List<Item> items = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                Item item = entry.get();
+                if (item != null) items.add(item);
+            }
+            return items;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void remove(Entry entry) {
+            int index = indexOf(entry.identifier);
+            if (index < 0) return;
+            Object slot = slots[index];
+            if (slot instanceof Entry) {
+                if (slot != entry) return;
+                deleteSlot(index);
+            } else {
+                ArrayList<Entry> list = (ArrayList<Entry>) slot;
+                int position = entry.position;
+                if (position >= list.size() || list.get(position) != entry) return;
+                // move the last entry into the gap, so removal does not shift the list
+                Entry last = list.remove(list.size() - 1);
+                if (last != entry) {
+                    list.set(position, last);
+                    last.position = position;
+                }
+                if (list.size() == 1) slots[index] = list.get(0);
+            }
+            size--;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized void enqueueEntriesOf(Item item) {
+            int index = indexOf(item.getIdentifier());
+            if (index < 0) return;
+            Object slot = slots[index];
+            if (slot instanceof Entry) {
+                if (((Entry) slot).get() == item) ((Entry) slot).enqueue();
+                return;
+            }
+            for (Entry entry : (ArrayList<Entry>) slot) {
+                if (entry.get() == item) entry.enqueue();
+            }
+        }
+
+        private int slotOf(long key) {
+            // the highest bits select the segment, the slot is taken from the bits below
+            return (int) (((key * GOLDEN_RATIO) << SEGMENT_BITS) >>> shift);
+        }
+
+        private int indexOf(long key) {
+            int mask = slots.length - 1;
+            int index = slotOf(key);
+            while (slots[index] != null) {
+                if (keys[index] == key) return index;
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Empties the slot at the given index, moving back the entries that follow
+         * it in the same probe sequence so every entry stays reachable.
+         */
+        private void deleteSlot(int index) {
+            int mask = slots.length - 1;
+            int free = index;
+            int next = index;
+            while (true) {
+                next = (next + 1) & mask;
+                if (slots[next] == null) break;
+                int preferred = slotOf(keys[next]);
+                boolean stays = free <= next ?
+                        (free < preferred && preferred <= next) :
+                        (free < preferred || preferred <= next);
+                if (!stays) {
+                    keys[free] = keys[next];
+                    slots[free] = slots[next];
+                    free = next;
+                }
+            }
+            slots[free] = null;
+            occupied--;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            Object[] oldSlots = slots;
+            keys = new long[oldSlots.length * 2];
+            slots = new Object[oldSlots.length * 2];
+            shift--;
+            int mask = slots.length - 1;
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] == null) continue;
+                int index = slotOf(oldKeys[i]);
+                while (slots[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                slots[index] = oldSlots[i];
+            }
+        }
+    }
+}
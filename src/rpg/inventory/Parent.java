@@ -2,6 +2,7 @@ package rpg.inventory;
 
 import rpg.exception.InvalidItemException;
 import rpg.Mobile;
+import rpg.value.Weight;
 
 /**
  * Created by elias on 08/07/17.
@@ -56,4 +57,24 @@ public interface Parent {
      *        Item to check.
      */
     boolean exceedsCapacity(Item item);
+
+    /**
+     * Checks if adding the given weight will exceed the capacity of the holder or
+     * any of the parents.
+     * @param weight
+     *        Weight that would be added.
+     */
+    boolean exceedsCapacityWith(Weight weight);
+
+    /**
+     * Informs this parent that the total weight or value of one of the items it holds
+     * has changed, so it can update the totals it keeps and pass the change on.
+     * @param added
+     *        Weight that has been added to the item, may be null.
+     * @param removed
+     *        Weight that has been removed from the item, may be null.
+     * @param valueDelta
+     *        Change in the value of the item.
+     */
+    void adjustContentTotals(Weight added, Weight removed, int valueDelta);
 }
@@ -1,15 +1,18 @@
 package rpg.inventory;
 
 import rpg.utility.FibonacciGenerator;
+import rpg.utility.IDCheckpoint;
 import rpg.utility.IDGenerator;
+import rpg.utility.IDPartition;
 import rpg.exception.InvalidItemException;
 import rpg.value.Weight;
-
-import java.util.Arrays;
-import java.util.Stack;
+import rpg.value.WeightAccumulator;
 
 /**
+ * A class of purses holding ducats.
  *
+ * @note All ducats are identical, so a purse only keeps count of how many it holds.
+ * Weight, value and tear checks are computed from that count in constant time.
  */
 public class Purse extends Container {
 
@@ -25,38 +28,49 @@ public class Purse extends Container {
      * @param capacity Capacity of this purse expressed in terms of weight.
      * @param ducats   Series of ducat objects to be added to the purse
      *                 after initialisation.
-     * @effect An empty purse is initialised using the less extended constructor.
+     * @effect Uses the superclass constructor to set weight and capacity.
+     * @see Container#Container(Weight, Weight)
+     * | super(weight, capacity)
      * @effect All given ducats are added to the contents of the purse.
      * | for each ducat in ducats:
      * |    addToContent(ducat)
-     * @see Purse#Purse(Weight, Weight)
-     * | this(weight, capacity)
+     * @effect The purse is registered once it is complete.
+     * | registerIfConstructed(Purse.class)
      */
     public Purse(Weight weight, Weight capacity, Ducat... ducats) {
-        this(weight, capacity);
+        super(weight, capacity);
         addDucats(ducats);
+        registerIfConstructed(Purse.class);
     }
 
     /**
-     * Initialises a new, empty purse with the given value, weight and capacity.
+     * Initialises a new, empty purse with the given weight and capacity.
      *
      * @param weight   Weight of this purse itself.
      * @param capacity Capacity of this purse expressed in terms of weight.
-     * @effect Uses the superclass constructor to set value, weight and capacity.
-     * As the purse has no value itself, value is set to zero.
-     * @see Container#Container(Weight, Weight)
-     * | super(0, weight, capacity)
+     * @effect The purse is initialised using the more extended constructor
+     * without ducats.
+     * @see Purse#Purse(Weight, Weight, Ducat...)
+     * | this(weight, capacity, new Ducat[0])
      */
     public Purse(Weight weight, Weight capacity) {
-        super(weight, capacity);
-        this.content = new Stack<>();
+        this(weight, capacity, new Ducat[0]);
     }
 
     /*****************************
      * 6.1: Identifier
      *****************************/
 
-    private static FibonacciGenerator idGen = new FibonacciGenerator();
+    /**
+     * IDGenerator for the purse class, generating the Fibonacci numbers of the node
+     * partition configured for this process, checkpointed if a checkpoint directory
+     * is configured.
+     * @note Only 92 Fibonacci numbers fit a long, so the generator restarts from the
+     * first one after 92 purses. A checkpoint makes a restarted process continue where
+     * the previous run stopped, but cannot keep identifiers of purses unique.
+     */
+    private static final FibonacciGenerator idGen = IDCheckpoint.fromSystemProperties(
+            new FibonacciGenerator(IDPartition.fromSystemProperties()), "purses");
 
     @Override
     IDGenerator getIDGenerator() {
@@ -69,11 +83,18 @@ public class Purse extends Container {
 
     /**
      * Counts how many ducats are in the purse
-     * @return The size of the content stack.
-     * | content.size()
+     * @return The number of ducats, capped at the largest integer.
+     * | return min(getNbOfDucats(), Integer.MAX_VALUE)
      */
     public int getNbOfItems(){
-        return content.size();
+        return (int) Math.min(getNbOfDucats(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Getter for the number of ducats in this purse.
+     */
+    public long getNbOfDucats(){
+        return this.nbOfDucats;
     }
 
     /**
@@ -82,70 +103,97 @@ public class Purse extends Container {
      * @param ducat Ducat to be added.
      * @throws NullPointerException If the given ducat contains a null pointer, exception is thrown.
      * @throws InvalidItemException If the purse is torn, exception is thrown.
-     * @effect If the ducat is effective, it is added to the purse.
+     * @effect If the ducat is effective, one ducat is added to the purse.
      * | if ducat != null:
-     * |      content.push(ducat)
-     * @effect If adding the ducat has exceeded the capacity of this purse, tear it.
-     * | if exceedsCapacity(getWeightOfContents()):
-     * |      tear()
+     * |      addDucats(1)
      */
     public void addDucat(Ducat ducat)
             throws NullPointerException, InvalidItemException {
-        if (isTorn()) throw new InvalidItemException("Purse is torn!");
         if (ducat == null) {
             throw new NullPointerException("Given ducat contains null pointer");
-        } else if (getParent().exceedsCapacity(ducat)){
-            throw new InvalidItemException("Item exceeds capacity of parent.");
-        } else {
-            content.push(ducat);
-            if (exceedsCapacity(getWeightOfContents())) {
-                tear();
-            }
         }
+        addDucats(1);
     }
 
+    /**
+     * Adds all the given ducats to the contents of this purse.
+     *
+     * @param ducats Ducats to be added.
+     * @throws NullPointerException If one of the given ducats contains a null pointer,
+     *         exception is thrown and no ducats are added.
+     * @effect | addDucats(ducats.length)
+     */
     public void addDucats(Ducat... ducats)
-            throws NullPointerException {
+            throws NullPointerException, InvalidItemException {
         for (Ducat ducat : ducats) {
             if (ducat == null)
                 throw new NullPointerException("Given ducat contains null pointer");
         }
-        Stack<Ducat> ducatStack = new Stack<>();
-        ducatStack.addAll(Arrays.asList(ducats));
+        addDucats(ducats.length);
     }
 
     /**
-     * Adds all the given ducats to this purse.
+     * Adds the given amount of ducats to the contents of this purse.
      *
-     * @param ducats Stack of ducats to be added
-     * @effect Tries to add all the ducats in the stack to this purse one by one.
-     * | for each ducat in ducats:
-     * |    try addDucat(ducat)
-     * @effect If the purse tears and not all ducats have been added, the remaining
-     * ducats are added to the parent of the purse (with the rest of the contents of
-     * the purse, as it has been torn)
-     * | if !ducats.empty():
-     * |    for each ducat in ducats:
-     * |        getParent.addItem(ducat)
-     * @effect If that fails, the remaining ducats are dropped to the ground by just
-     * letting the method terminating without adding the ducats to an inventory.
+     * @param amount Number of ducats to be added.
+     * @throws InvalidItemException If the purse is torn, exception is thrown.
+     *       | isTorn()
+     * @throws InvalidItemException If the ducats would exceed the capacity of the parent.
+     *       | hasParent() && getParent().exceedsCapacityWith(DUCAT_WEIGHT * amount)
+     * @throws IllegalArgumentException If the amount is negative.
+     * @throws ArithmeticException If the value of the added ducats does not fit in an
+     *         integer. Nothing changes then.
+     *       | amount * Ducat.VALUE &gt; Integer.MAX_VALUE
+     * @effect The number of ducats is increased by the amount.
+     * | nbOfDucats = nbOfDucats + amount
+     * @effect The parent is informed of the added weight and value.
+     * | notifyParentOfChange(DUCAT_WEIGHT * amount, null, amount)
+     * @effect If adding the ducats has exceeded the capacity of this purse, tear it.
+     * | if exceedsCapacity(getWeightOfContents()):
+     * |      tear()
      */
-    public void addDucats(Stack<Ducat> ducats) throws NullPointerException {
-        while (!ducats.isEmpty()) {
-            try {
-                addDucat(ducats.pop());
-            } catch (InvalidItemException e) {
-                break;
-            }
+    public void addDucats(long amount)
+            throws InvalidItemException, IllegalArgumentException, ArithmeticException {
+        if (amount < 0) throw new IllegalArgumentException("Amount of ducats is negative!");
+        if (isTorn()) throw new InvalidItemException("Purse is torn!");
+        if (amount == 0) return;
+        // compute everything that can fail before anything changes
+        int valueDelta = Math.toIntExact(Math.multiplyExact(amount, (long) Ducat.VALUE));
+        long newNbOfDucats = Math.addExact(getNbOfDucats(), amount);
+        Weight addedWeight = Ducat.weightOf(amount);
+        if (hasParent() && getParent().exceedsCapacityWith(addedWeight)) {
+            throw new InvalidItemException("Item exceeds capacity of parent.");
         }
-        while (!ducats.isEmpty()) {
-            try {
-                getParent().addItem(ducats.pop());
-            } catch (InvalidItemException e) {
-            }
+        nbOfDucats = newNbOfDucats;
+        notifyParentOfChange(addedWeight, null, valueDelta);
+        if (exceedsCapacity(getWeightOfContents())) {
+            tear();
         }
     }
 
+    /**
+     * Removes the given amount of ducats from this purse, dropping them to the ground.
+     *
+     * @param amount Number of ducats to be removed.
+     * @throws InvalidItemException If the purse holds less ducats than the amount.
+     *       | amount &gt; getNbOfDucats()
+     * @throws IllegalArgumentException If the amount is negative.
+     * @effect The number of ducats is decreased by the amount.
+     * | nbOfDucats = nbOfDucats - amount
+     * @effect The parent is informed of the removed weight and value.
+     * | notifyParentOfChange(null, DUCAT_WEIGHT * amount, -amount)
+     */
+    public void removeDucats(long amount)
+            throws InvalidItemException, IllegalArgumentException {
+        if (amount < 0) throw new IllegalArgumentException("Amount of ducats is negative!");
+        if (amount > getNbOfDucats())
+            throw new InvalidItemException("Purse does not contain that many ducats!");
+        if (amount == 0) return;
+        int valueDelta = -Math.toIntExact(amount * Ducat.VALUE);
+        nbOfDucats -= amount;
+        notifyParentOfChange(null, Ducat.weightOf(amount), valueDelta);
+    }
+
     /**
      * Transfers the contents of this purse to the given other.
      *
@@ -153,15 +201,15 @@ public class Purse extends Container {
      * @effect All of this purse's contents are removed.
      * | dropAllContent()
      * @effect This purse is dropped to the ground.
-     * | getParent().dropDucat(this)
+     * | getParent().dropItem(this)
      * @effect All ducats that were once in this purse are added to
      * the given other purse.
-     * | purse.addDucats(this.content)
+     * | purse.addDucats(this.getNbOfDucats())
      */
     public void transferContentTo(Purse purse) {
-        Stack<Ducat> ducatsToTransfer = this.getContent();
+        long ducatsToTransfer = this.getNbOfDucats();
         this.dropAllContent();
-        this.getParent().dropItem(this);
+        if (hasParent()) this.getParent().dropItem(this);
 
         purse.addDucats(ducatsToTransfer);
     }
@@ -171,41 +219,21 @@ public class Purse extends Container {
      *
      * @effect Every ducat in the content of this purse are dropped.
      * As ducats have no knowledge of their parent, this is equivalent
-     * to reinitialising the content Stack.
-     * | content = new Stack&lt;Ducat&gt;
+     * to resetting the count.
+     * | removeDucats(getNbOfDucats())
      */
     private void dropAllContent() {
-        content = new Stack<>();
+        removeDucats(getNbOfDucats());
     }
 
     /**
-     * Drops one ducat on the ground.
+     * Counter storing the contents of this purse.
      *
-     * @effect One ducat is removed from the contents of this purse.
-     * | content.pop()
+     * @note A counter was chosen over storing ducat objects. As all ducats
+     * are identical, there is no need to get to a specific one, and adding or
+     * removing any amount of ducats is a single addition.
      */
-    private Ducat dropDucat() {
-        return content.pop();
-    }
-
-    /**
-     * Retrieves the content stack for this purse. Private because content should not
-     * be manipulated directly.
-     *
-     * @return
-     */
-    private Stack<Ducat> getContent() {
-        return this.content;
-    }
-
-    /**
-     * Data structure for storing the contents of this purse.
-     *
-     * @note The stack data structure was chosen for ease of use. As all ducats
-     * are identical, there is no need to get to a specific one. However, removing
-     * one ducat gets significantly easier when using a stack.
-     */
-    private Stack<Ducat> content = null;
+    private long nbOfDucats = 0;
 
     /*****************************
      * 6.3: Weight
@@ -218,7 +246,18 @@ public class Purse extends Container {
      * to the weight of one ducat multiplied by the amount of ducats.
      */
     public Weight getWeightOfContents() {
-        return Ducat.DUCAT_WEIGHT.multiply(getContent().size());
+        return Ducat.weightOf(getNbOfDucats());
+    }
+
+    /**
+     * Adds the weight of the ducats in this purse to the given accumulator.
+     *
+     * @param accumulator Accumulator to add the weight to.
+     * @effect | accumulator.add(Ducat.DUCAT_WEIGHT, getNbOfDucats())
+     */
+    @Override
+    protected void addWeightOfContentsTo(WeightAccumulator accumulator) {
+        accumulator.add(Ducat.DUCAT_WEIGHT, getNbOfDucats());
     }
 
     /*****************************
@@ -231,11 +270,12 @@ public class Purse extends Container {
      * @return The value of the contents of this item.
      * Every ducat has the same value of one, so the value is equal to the
      * amount of ducats being stored.
-     * | return content.size()
+     * | return getNbOfDucats()
+     * @throws ArithmeticException If the value does not fit in an integer.
      */
     @Override
     public int getValue() {
-        return content.size();
+        return Math.toIntExact(getNbOfDucats() * Ducat.VALUE);
     }
 
     /*****************************
@@ -255,30 +295,27 @@ public class Purse extends Container {
      * | if parent instanceof Anchorpoint
      * |     dropAllContent()
      * |     parent.dropItem(this)
-     * @effect If the purse's parent is a Backpack, try to add all the ducats to the
-     * contents of the backpack. If there is no room in the backpack, dropDucat the
-     * ducat on the ground. The purse is also dropped on the ground.
+     * @effect If the purse's parent is a Backpack, all the ducats are taken out of the
+     * purse and as many of them as the backpack has room for are added to the ducats
+     * of the backpack. The others are dropped on the ground.
      * | if parent instanceof Backpack
-     * |     for i < content.size
-     * |         try parent.addItem(dropDucat())
-     * |     parent.dropDucat(this)
-     * @note If trying to add a ducat to the backpack fails, this automatically drops
-     * it to the ground because the reference to it has already been removed from
-     * the content stack of the purse.
+     * |     let amount = getNbOfDucats()
+     * |     dropAllContent()
+     * |     parent.addDucats(parent.getNbOfDucatsFitting(amount))
+     * @note The ducats are moved as a count, no ducat object is created for them.
      */
     private void tear() {
-        if (getParent() == null) dropAllContent();
-        if (getParent() instanceof Anchorpoint) {
+        if (getParent() == null) {
+            dropAllContent();
+        } else if (getParent() instanceof Anchorpoint) {
             dropAllContent();
             getParent().dropItem(this);
-        } else {
-            for (int i = 0; i < getContent().size(); i++) {
-                try {
-                    getParent().addItem(this.dropDucat());
-                } catch (InvalidItemException e) {
-                    //nothing has to be done, reference to ducat already removed.
-                }
-            }
+        } else if (getParent() instanceof Backpack) {
+            Backpack backpack = (Backpack) getParent();
+            long amount = getNbOfDucats();
+            // empty the purse first, its ducats no longer weigh on the backpack then
+            dropAllContent();
+            backpack.addDucats(backpack.getNbOfDucatsFitting(amount));
         }
         torn = true;
     }
@@ -3,7 +3,9 @@ package rpg.inventory;
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Raw;
+import rpg.utility.IDCheckpoint;
 import rpg.utility.IDGenerator;
+import rpg.utility.IDPartition;
 import rpg.utility.WeaponIDGenerator;
 import rpg.Mobile;
 import rpg.value.Weight;
@@ -54,10 +56,13 @@ public class Weapon extends Item implements hasParent{
      *
      * @pre The given damage must be an effective value.
      * | canHaveAsDamage(dmg)
+     * @effect The weapon is registered once it is complete.
+     * | registerIfConstructed(Weapon.class)
      */
     public Weapon(Weight weight, int dmg) {
         super(weight);
         setDamage(dmg);
+        registerIfConstructed(Weapon.class);
     }
 
     /*****************************
@@ -75,9 +80,12 @@ public class Weapon extends Item implements hasParent{
     /**
      * IDGenerator for the weapon class.
      * Generates multiples of six so the ID of the weapon is always an even, positive
-     * integer divisible by three.
+     * integer divisible by three. Only the multiples of the node partition configured
+     * for this process are generated, continuing after those of the previous run if
+     * a checkpoint directory is configured.
      */
-    private static WeaponIDGenerator idGen = new WeaponIDGenerator();
+    private static final WeaponIDGenerator idGen = IDCheckpoint.fromSystemProperties(
+            new WeaponIDGenerator(IDPartition.fromSystemProperties()), "weapons");
 
     /*****************************
      * 3.3: Damage
@@ -104,10 +112,20 @@ public class Weapon extends Item implements hasParent{
      *        Value to be set.
      * @pre The given damage must be an effective value.
      * | canHaveAsDamage(dmg)
+     * @effect The parent is informed of the change in value.
+     * | notifyParentOfValueChange(old.getValue())
+     * @effect If the parent is an anchorpoint, it passes the new damage on to its holder.
+     * | if getParent() instanceof Anchorpoint
+     * |    getParent().updateWeaponDamage()
      */
     @Basic @Raw
     public void setDamage(int dmg){
+        int oldValue = getValue();
         this.dmg = dmg;
+        notifyParentOfValueChange(oldValue);
+        if (getParent() instanceof Anchorpoint) {
+            ((Anchorpoint) getParent()).updateWeaponDamage();
+        }
     }
 
     /**
@@ -155,6 +173,20 @@ public class Weapon extends Item implements hasParent{
         return getDamage() * getValuePerDamage();
     }
 
+    /**
+     * Informs the parent of this weapon that its value has changed.
+     * @param oldValue
+     *        Value of this weapon before the change.
+     * @effect If the weapon has a parent, it adjusts its running totals.
+     * | if hasParent()
+     * |    getParent().adjustContentTotals(null, null, getValue() - oldValue)
+     */
+    private void notifyParentOfValueChange(int oldValue) {
+        if (hasParent() && getValue() != oldValue) {
+            getParent().adjustContentTotals(null, null, getValue() - oldValue);
+        }
+    }
+
     /**
      * Gets the amount of ducats a unit of damage is worth.
      * @return The constant specifying how much a unit of damage is worth.
@@ -251,10 +283,14 @@ public class Weapon extends Item implements hasParent{
      * | getDamage() == 0
      * @effect The weapon has no value anymore.
      * | getValue() == 0
+     * @effect The parent, if any, is informed of the lost value.
+     * | notifyParentOfValueChange(old.getValue())
      */
     @Raw
     private void destroy(){
+        int oldValue = getValue();
         this.destroyed = true;
+        notifyParentOfValueChange(oldValue);
     }
 
     /**
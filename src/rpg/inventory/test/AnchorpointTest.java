@@ -1,6 +1,14 @@
 package rpg.inventory.test;
 
 import org.junit.Before;
+import org.junit.Test;
+import rpg.exception.InvalidItemException;
+import rpg.inventory.AnchorType;
+import rpg.inventory.Anchorpoint;
+import rpg.inventory.Backpack;
+import rpg.inventory.Weapon;
+import rpg.value.Unit;
+import rpg.value.Weight;
 
 import static org.junit.Assert.*;
 
@@ -8,8 +16,105 @@ import static org.junit.Assert.*;
  * Created by elias on 09/08/17.
  */
 public class AnchorpointTest {
+
+    TestMobile porter;
+    Anchorpoint back;
+    Backpack outer;
+    Backpack nested;
+    Backpack deepest;
+
     @Before
     public void setUp() {
+        // capacities: porter 50 kg, outer 30 kg, nested 10 kg, deepest 5 kg
+        porter = new TestMobile(new Weight(50, Unit.kg));
+        back = porter.getAnchorpoint(AnchorType.back);
+        outer = new Backpack(1, new Weight(1, Unit.kg), new Weight(30, Unit.kg));
+        nested = new Backpack(1, new Weight(1, Unit.kg), new Weight(10, Unit.kg));
+        deepest = new Backpack(1, new Weight(1, Unit.kg), new Weight(5, Unit.kg));
+        nested.addItem(deepest);
+        outer.addItem(nested);
+        back.addItem(outer);
+    }
+
+    static Weapon weapon(int kg) {
+        return new Weapon(new Weight(kg, Unit.kg), 7);
+    }
+
+    /**
+     * Asserts that adding the given weapon to the deepest backpack is rejected and
+     * changes nothing.
+     */
+    void assertRejectedInDeepest(Weapon weapon) {
+        Weight carried = porter.getCurrentCarriedWeight();
+        Weight outerContent = outer.getWeightOfContents();
+        try {
+            deepest.addItem(weapon);
+            fail("Adding the weapon should exceed a capacity.");
+        } catch (InvalidItemException e) {
+            assertFalse(deepest.contains(weapon));
+            assertNull(weapon.getParent());
+            assertEquals(0, deepest.getNbOfItems());
+            assertTrue(carried.hasSameValue(porter.getCurrentCarriedWeight()));
+            assertTrue(outerContent.hasSameValue(outer.getWeightOfContents()));
+        }
+    }
+
+    @Test
+    public void carriedWeightOfNestedChain() {
+        assertTrue(new Weight(3, Unit.kg).hasSameValue(porter.getCurrentCarriedWeight()));
+        deepest.addItem(weapon(5));
+        assertTrue(new Weight(8, Unit.kg).hasSameValue(porter.getCurrentCarriedWeight()));
+    }
+
+    @Test
+    public void rejectedByDeepestBackpack() {
+        assertRejectedInDeepest(weapon(6));
+    }
+
+    @Test
+    public void rejectedByNestedBackpack() {
+        nested.addItem(weapon(7));
+        // deepest holds 3 of 5 kg, nested would hold 1 + 7 + 3 of 10 kg
+        assertRejectedInDeepest(weapon(3));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void rejectedByOuterBackpack() {
+        outer.addItem(weapon(25));
+        // nested would hold 6 of 10 kg, outer 2 + 25 + 4 of 30 kg
+        assertRejectedInDeepest(weapon(4));
+    }
+
+    @Test
+    public void rejectedByHolder() {
+        porter.addItemToAnchorpoint(AnchorType.rhand, weapon(45));
+        // outer would hold 5 of 30 kg, the porter 48 + 3 of 50 kg
+        assertRejectedInDeepest(weapon(3));
+    }
+
+    @Test
+    public void acceptedAtCapacity() {
+        Weapon weapon = weapon(5);
+        deepest.addItem(weapon);
+        assertTrue(deepest.contains(weapon));
+        assertSame(deepest, weapon.getParent());
+    }
+
+    @Test
+    public void dropHeldItem() {
+        back.dropItem(outer);
+        assertFalse(back.containsItem());
+        assertNull(outer.getParent());
+        assertTrue(Weight.kg_0.hasSameValue(porter.getCurrentCarriedWeight()));
+    }
+
+    @Test(expected = InvalidItemException.class)
+    public void dropOtherItem() {
+        back.dropItem(weapon(1));
+    }
+
+    @Test(expected = InvalidItemException.class)
+    public void dropFromEmptyAnchorpoint() {
+        porter.getAnchorpoint(AnchorType.belt).dropItem();
+    }
+}
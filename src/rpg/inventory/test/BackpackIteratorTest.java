@@ -1,6 +1,18 @@
 package rpg.inventory.test;
 
 import org.junit.Before;
+import org.junit.Test;
+import rpg.inventory.Backpack;
+import rpg.inventory.BackpackIterator;
+import rpg.inventory.Item;
+import rpg.inventory.Weapon;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -8,8 +20,204 @@ import static org.junit.Assert.*;
  * Created by elias on 7/19/17.
  */
 public class BackpackIteratorTest {
+
+    Backpack backpack;
+    Backpack nested;
+    Backpack deepest;
+    Weapon outer;
+    Weapon middle;
+    Weapon inner;
+
     @Before
     public void setUp() throws Exception {
+        backpack = new Backpack(1, new Weight(1, Unit.kg), new Weight(1000, Unit.kg));
+        nested = new Backpack(1, new Weight(1, Unit.kg), new Weight(1000, Unit.kg));
+        deepest = new Backpack(1, new Weight(1, Unit.kg), new Weight(1000, Unit.kg));
+        outer = new Weapon(new Weight(1, Unit.kg), 7);
+        middle = new Weapon(new Weight(1, Unit.kg), 7);
+        inner = new Weapon(new Weight(1, Unit.kg), 7);
+        deepest.addItem(inner);
+        nested.addItem(middle);
+        nested.addItem(deepest);
+        backpack.addItem(outer);
+        backpack.addItem(nested);
+    }
+
+    static List<Item> all(BackpackIterator iterator) {
+        List<Item> items = new ArrayList<>();
+        while (iterator.hasMoreElements()) {
+            items.add(iterator.nextElement());
+        }
+        return items;
+    }
+
+    static void assertBefore(List<Item> items, Item first, Item second) {
+        assertTrue(items.indexOf(first) >= 0);
+        assertTrue(items.indexOf(first) < items.indexOf(second));
+    }
+
+    @Test
+    public void directContentOnly() {
+        List<Item> items = all(backpack.iterator());
+        assertEquals(new HashSet<Item>(Arrays.asList(outer, nested)), new HashSet<>(items));
+        assertEquals(2, items.size());
+    }
+
+    @Test
+    public void preorder() {
+        List<Item> items = all(backpack.iterator(BackpackIterator.Order.preorder, BackpackIterator.UNLIMITED_DEPTH));
+        assertEquals(5, items.size());
+        assertBefore(items, nested, middle);
+        assertBefore(items, nested, deepest);
+        assertBefore(items, deepest, inner);
+    }
+
+    @Test
+    public void postorder() {
+        List<Item> items = all(backpack.iterator(BackpackIterator.Order.postorder, BackpackIterator.UNLIMITED_DEPTH));
+        assertEquals(5, items.size());
+        assertBefore(items, middle, nested);
+        assertBefore(items, deepest, nested);
+        assertBefore(items, inner, deepest);
+    }
+
+    @Test
+    public void maxDepth() {
+        List<Item> items = all(backpack.iterator(BackpackIterator.Order.preorder, 1));
+        assertEquals(new HashSet<Item>(Arrays.asList(outer, nested, middle, deepest)), new HashSet<>(items));
+        assertEquals(4, items.size());
+        assertEquals(2, all(backpack.iterator(BackpackIterator.Order.postorder, -1)).size());
+    }
+
+    @Test
+    public void includeNested() {
+        List<Item> content = Arrays.asList(outer, nested);
+        assertEquals(5, all(new BackpackIterator(content, true)).size());
+        assertEquals(content, all(new BackpackIterator(content, false)));
     }
 
-}
\ No newline at end of file
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void nextElementAfterLast() {
+        BackpackIterator iterator = backpack.iterator();
+        all(iterator);
+        iterator.nextElement();
+    }
+
+    @Test
+    public void removeWeapons() {
+        BackpackIterator iterator = backpack.iterator(BackpackIterator.Order.preorder, BackpackIterator.UNLIMITED_DEPTH);
+        int removed = 0;
+        while (iterator.hasMoreElements()) {
+            if (iterator.nextElement() instanceof Weapon) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        assertEquals(3, removed);
+        assertFalse(backpack.contains(outer));
+        assertFalse(nested.contains(middle));
+        assertFalse(deepest.contains(inner));
+        assertNull(inner.getParent());
+        assertEquals(2, backpack.getTotalNbOfItems());
+        assertTrue(new Weight(2, Unit.kg).hasSameValue(backpack.getWeightOfContents()));
+        assertEquals(2, backpack.getValueOfContent());
+    }
+
+    @Test
+    public void removeBackpackInPreorder() {
+        BackpackIterator iterator = backpack.iterator(BackpackIterator.Order.preorder, BackpackIterator.UNLIMITED_DEPTH);
+        List<Item> items = new ArrayList<>();
+        while (iterator.hasMoreElements()) {
+            Item item = iterator.nextElement();
+            items.add(item);
+            if (item == nested) iterator.remove();
+        }
+        assertEquals(2, items.size());
+        assertFalse(backpack.contains(nested));
+        assertNull(nested.getParent());
+        assertEquals(1, backpack.getTotalNbOfItems());
+        assertEquals(3, nested.getTotalNbOfItems());
+    }
+
+    @Test
+    public void removeBackpackInPostorder() {
+        BackpackIterator iterator = backpack.iterator(BackpackIterator.Order.postorder, BackpackIterator.UNLIMITED_DEPTH);
+        List<Item> items = new ArrayList<>();
+        while (iterator.hasMoreElements()) {
+            Item item = iterator.nextElement();
+            items.add(item);
+            if (item == deepest) iterator.remove();
+        }
+        assertEquals(5, items.size());
+        assertFalse(nested.contains(deepest));
+        assertTrue(nested.contains(middle));
+        assertEquals(3, backpack.getTotalNbOfItems());
+    }
+
+    @Test
+    public void removeManyItems() {
+        Backpack large = new Backpack(1, new Weight(1, Unit.kg), new Weight(100000, Unit.kg));
+        for (int i = 0; i < 1000; i++) {
+            large.addItem(new Weapon(new Weight(1, Unit.g), 7));
+        }
+        BackpackIterator iterator = large.iterator();
+        HashSet<Item> seen = new HashSet<>();
+        HashSet<Item> kept = new HashSet<>();
+        int i = 0;
+        while (iterator.hasMoreElements()) {
+            Item item = iterator.nextElement();
+            assertTrue(seen.add(item));
+            if (i++ % 2 == 0) iterator.remove();
+            else kept.add(item);
+        }
+        assertEquals(1000, seen.size());
+        assertEquals(500, large.getNbOfItems());
+        assertEquals(kept, new HashSet<>(all(large.iterator())));
+    }
+
+    @Test
+    public void removeFromTablesOfAllSizes() {
+        // runs of occupied slots that pass the end of the table are bound to occur
+        for (int n = 1; n <= 200; n++) {
+            Backpack holder = new Backpack(1, new Weight(1, Unit.kg), new Weight(100000, Unit.kg));
+            for (int i = 0; i < n; i++) {
+                holder.addItem(new Weapon(new Weight(1, Unit.g), 7));
+            }
+            BackpackIterator iterator = holder.iterator();
+            HashSet<Item> seen = new HashSet<>();
+            HashSet<Item> kept = new HashSet<>();
+            while (iterator.hasMoreElements()) {
+                Item item = iterator.nextElement();
+                assertTrue(seen.add(item));
+                if (seen.size() % 3 == 1) kept.add(item);
+                else iterator.remove();
+            }
+            assertEquals(n, seen.size());
+            assertEquals(kept.size(), holder.getTotalNbOfItems());
+            assertEquals(kept, new HashSet<>(all(holder.iterator())));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void removeTwice() {
+        BackpackIterator iterator = backpack.iterator();
+        iterator.nextElement();
+        iterator.remove();
+        iterator.remove();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void removeAfterLookAhead() {
+        BackpackIterator iterator = backpack.iterator();
+        iterator.nextElement();
+        iterator.hasMoreElements();
+        iterator.remove();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void removeFromOtherContent() {
+        BackpackIterator iterator = new BackpackIterator(Arrays.<Item>asList(outer, nested), false);
+        iterator.nextElement();
+        iterator.remove();
+    }
+}
@@ -0,0 +1,250 @@
+package rpg.inventory.test;
+
+import org.junit.Before;
+import org.junit.Test;
+import rpg.exception.InvalidItemException;
+import rpg.inventory.AnchorType;
+import rpg.inventory.Backpack;
+import rpg.inventory.BackpackIterator;
+import rpg.inventory.Ducat;
+import rpg.inventory.Item;
+import rpg.inventory.Purse;
+import rpg.inventory.Weapon;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class BackpackTest {
+
+    Backpack backpack;
+    Backpack nested;
+
+    @Before
+    public void setUp() {
+        backpack = new Backpack(10, new Weight(1, Unit.kg), new Weight(1000, Unit.kg));
+        nested = new Backpack(5, new Weight(1, Unit.kg), new Weight(1000, Unit.kg));
+        backpack.addItem(nested);
+        for (int i = 0; i < 100; i++) {
+            backpack.addItem(new Weapon(new Weight(1, Unit.kg), 7));
+            nested.addItem(new Weapon(new Weight(1, Unit.kg), 7));
+        }
+    }
+
+    @Test
+    public void streamIncludesNestedContent() {
+        assertEquals(201, backpack.stream().count());
+        assertTrue(backpack.stream().anyMatch(item -> item == nested));
+    }
+
+    @Test
+    public void parallelStreamMatchesStream() {
+        Set<Item> sequential = backpack.stream().collect(Collectors.toSet());
+        Set<Item> parallel = backpack.parallelStream().collect(Collectors.toSet());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void smallBackpackWithLargeNestedSplits() {
+        Backpack outer = new Backpack(1, new Weight(1, Unit.kg), new Weight(1000, Unit.kg));
+        Backpack large = new Backpack(1, new Weight(1, Unit.kg), new Weight(1000, Unit.kg));
+        outer.addItem(large);
+        for (int i = 0; i < 1000; i++) {
+            large.addItem(new Weapon(new Weight(100, Unit.g), 7));
+        }
+        assertEquals(1001, outer.getTotalNbOfItems());
+        Spliterator<Item> spliterator = outer.spliterator();
+        assertTrue(spliterator.estimateSize() >= 1000);
+        Spliterator<Item> split = spliterator.trySplit();
+        assertNotNull(split);
+        assertNotNull(split.trySplit());
+        Set<Item> items = new HashSet<>();
+        spliterator.forEachRemaining(items::add);
+        assertEquals(1, items.size());
+        assertTrue(items.contains(large));
+        outer.spliterator().forEachRemaining(items::add);
+        assertEquals(1001, items.size());
+    }
+
+    @Test
+    public void totalNbOfItems() {
+        assertEquals(201, backpack.getTotalNbOfItems());
+        backpack.dropItem(nested);
+        assertEquals(100, backpack.getTotalNbOfItems());
+        assertEquals(100, nested.getTotalNbOfItems());
+    }
+
+    @Test
+    public void ducatsAreCounted() {
+        Ducat ducat = new Ducat();
+        assertFalse(nested.contains(ducat));
+        nested.addItem(ducat);
+        nested.addItem(new Ducat());
+        assertEquals(2, nested.getNbOfDucats());
+        assertEquals(100, nested.getNbOfItems());
+        assertTrue(nested.contains(ducat));
+        assertEquals(200 * 14 + 5 + 2, backpack.getValueOfContent());
+        nested.dropItem(ducat);
+        assertEquals(1, nested.getNbOfDucats());
+        assertTrue(new Weight(201050, Unit.g).hasSameValue(backpack.getWeightOfContents()));
+    }
+
+    @Test
+    public void streamEmptyBackpack() {
+        assertEquals(0, new Backpack(1, null, null).stream().count());
+    }
+
+    @Test
+    public void totalsAfterNestedAdd() {
+        assertEquals(200 * 14 + 5, backpack.getValueOfContent());
+        assertEquals(100 * 14, nested.getValueOfContent());
+        assertTrue(new Weight(201, Unit.kg).hasSameValue(backpack.getWeightOfContents()));
+        Weapon added = new Weapon(new Weight(2, Unit.kg), 14);
+        nested.addItem(added);
+        assertEquals(200 * 14 + 5 + 28, backpack.getValueOfContent());
+        assertTrue(new Weight(203, Unit.kg).hasSameValue(backpack.getWeightOfContents()));
+    }
+
+    @Test
+    public void totalsAfterNestedRemove() {
+        Weapon weapon = new Weapon(new Weight(2, Unit.kg), 14);
+        nested.addItem(weapon);
+        nested.transferItemTo(weapon, backpack);
+        assertEquals(100 * 14, nested.getValueOfContent());
+        assertEquals(200 * 14 + 5 + 28, backpack.getValueOfContent());
+        assertTrue(new Weight(203, Unit.kg).hasSameValue(backpack.getWeightOfContents()));
+        assertTrue(new Weight(100, Unit.kg).hasSameValue(nested.getWeightOfContents()));
+    }
+
+    @Test
+    public void totalsAfterNestedSetDamage() {
+        Weapon weapon = new Weapon(new Weight(2, Unit.kg), 7);
+        nested.addItem(weapon);
+        weapon.setDamage(70);
+        assertEquals(100 * 14 + 140, nested.getValueOfContent());
+        assertEquals(200 * 14 + 5 + 140, backpack.getValueOfContent());
+        nested.dropItem(weapon);
+        assertEquals(100 * 14, nested.getValueOfContent());
+        assertEquals(200 * 14 + 5, backpack.getValueOfContent());
+    }
+
+    @Test
+    public void totalsAfterNestedDrop() {
+        Weapon weapon = new Weapon(new Weight(2, Unit.kg), 7);
+        nested.addItem(weapon);
+        nested.dropItem(weapon);
+        assertTrue(weapon.isDestroyed());
+        assertEquals(200 * 14 + 5, backpack.getValueOfContent());
+        assertTrue(new Weight(201, Unit.kg).hasSameValue(backpack.getWeightOfContents()));
+        backpack.dropItem(nested);
+        assertEquals(100 * 14, backpack.getValueOfContent());
+        assertTrue(new Weight(100, Unit.kg).hasSameValue(backpack.getWeightOfContents()));
+    }
+
+    @Test
+    public void totalsOfPurseInBackpack() {
+        Purse purse = new Purse(new Weight(100, Unit.g), new Weight(10, Unit.kg));
+        nested.addItem(purse);
+        purse.addDucats(20);
+        assertEquals(100 * 14 + 20, nested.getValueOfContent());
+        purse.removeDucats(20);
+        assertEquals(100 * 14, nested.getValueOfContent());
+        assertTrue(new Weight(100100, Unit.g).hasSameValue(nested.getWeightOfContents()));
+    }
+
+    @Test
+    public void poundBackpackLeavesNoWeightWithHolder() {
+        TestMobile holder = new TestMobile(new Weight(1000, Unit.kg));
+        Backpack pounds = new Backpack(0, new Weight(3, Unit.lbs), new Weight(100, Unit.lbs));
+        holder.addItemToAnchorpoint(AnchorType.back, pounds);
+        for (int i = 0; i < 10; i++) {
+            pounds.addItem(new Weapon(new Weight(1, Unit.lbs), 7));
+            pounds.addItem(new Weapon(new Weight(333, Unit.g), 7));
+        }
+        assertTrue(pounds.getTotalWeight().hasSameValue(holder.getCurrentCarriedWeight()));
+        holder.getAnchorpoint(AnchorType.back).dropItem(pounds);
+        assertEquals(Weight.kg_0, holder.getCurrentCarriedWeight());
+    }
+
+    @Test
+    public void hugePoundCapacityIsNeverExceeded() {
+        Backpack huge = new Backpack(0, new Weight(1, Unit.kg),
+                new Weight(BigDecimal.valueOf(Long.MAX_VALUE, 5), Unit.lbs));
+        Weapon weapon = new Weapon(new Weight(1, Unit.kg), 7);
+        assertFalse(huge.exceedsCapacityWith(weapon.getTotalWeight()));
+        huge.addItem(weapon);
+        assertTrue(huge.contains(weapon));
+    }
+
+    @Test
+    public void nbOfItemsFollowsAddAndDrop() {
+        assertEquals(101, backpack.getNbOfItems());
+        Weapon weapon = new Weapon(new Weight(1, Unit.kg), 7);
+        backpack.addItem(weapon);
+        assertEquals(102, backpack.getNbOfItems());
+        assertTrue(backpack.contains(weapon));
+        backpack.dropItem(weapon);
+        assertEquals(101, backpack.getNbOfItems());
+        assertFalse(backpack.contains(weapon));
+    }
+
+    @Test
+    public void transferBetweenBackpacks() {
+        Weapon weapon = new Weapon(new Weight(1, Unit.kg), 7);
+        backpack.addItem(weapon);
+        backpack.transferItemTo(weapon, nested);
+        assertFalse(backpack.contains(weapon));
+        assertTrue(nested.contains(weapon));
+        assertSame(nested, weapon.getParent());
+        assertFalse(weapon.isDestroyed());
+        assertEquals(101, backpack.getNbOfItems());
+        assertEquals(101, nested.getNbOfItems());
+        assertEquals(202, backpack.getTotalNbOfItems());
+    }
+
+    @Test
+    public void itemsWithIdentifier() {
+        Weapon weapon = new Weapon(new Weight(1, Unit.kg), 7);
+        assertTrue(backpack.getItemsWithIdentifier(weapon.getIdentifier()).isEmpty());
+        backpack.addItem(weapon);
+        assertEquals(1, backpack.getItemsWithIdentifier(weapon.getIdentifier()).size());
+        assertSame(weapon, backpack.getItemsWithIdentifier(weapon.getIdentifier()).get(0));
+        assertTrue(nested.getItemsWithIdentifier(weapon.getIdentifier()).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void itemsWithIdentifierAreReadOnly() {
+        Weapon weapon = new Weapon(new Weight(1, Unit.kg), 7);
+        backpack.addItem(weapon);
+        backpack.getItemsWithIdentifier(weapon.getIdentifier()).add(weapon);
+    }
+
+    @Test
+    public void iteratorSeesCurrentContent() {
+        Backpack empty = new Backpack(1, new Weight(1, Unit.kg), new Weight(10, Unit.kg));
+        assertFalse(empty.iterator().hasMoreElements());
+        Weapon weapon = new Weapon(new Weight(1, Unit.kg), 7);
+        empty.addItem(weapon);
+        BackpackIterator iterator = empty.iterator();
+        assertSame(weapon, iterator.nextElement());
+        assertFalse(iterator.hasMoreElements());
+    }
+
+    @Test(expected = InvalidItemException.class)
+    public void addItemTwice() {
+        Weapon weapon = new Weapon(new Weight(1, Unit.kg), 7);
+        backpack.addItem(weapon);
+        backpack.addItem(weapon);
+    }
+
+    @Test(expected = InvalidItemException.class)
+    public void dropMissingItem() {
+        backpack.dropItem(new Weapon(new Weight(1, Unit.kg), 7));
+    }
+}
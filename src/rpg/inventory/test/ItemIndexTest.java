@@ -0,0 +1,138 @@
+package rpg.inventory.test;
+
+import org.junit.Before;
+import org.junit.Test;
+import rpg.inventory.Backpack;
+import rpg.inventory.BackpackIterator;
+import rpg.inventory.Item;
+import rpg.inventory.Weapon;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the content index of backpacks, through the backpacks holding it.
+ */
+public class ItemIndexTest {
+
+    Backpack backpack;
+    List<Weapon> weapons;
+
+    @Before
+    public void setUp() {
+        backpack = new Backpack(1, new Weight(1, Unit.kg), new Weight(100000, Unit.kg));
+        weapons = new ArrayList<>();
+        // enough items to grow the table from 16 to 2048 slots, with long probe runs
+        for (int i = 0; i < 1000; i++) {
+            Weapon weapon = new Weapon(new Weight(1, Unit.g), 7);
+            weapons.add(weapon);
+            backpack.addItem(weapon);
+        }
+    }
+
+    static Set<Item> content(Backpack backpack) {
+        Set<Item> items = new HashSet<>();
+        BackpackIterator iterator = backpack.iterator();
+        while (iterator.hasMoreElements()) {
+            assertTrue(items.add(iterator.nextElement()));
+        }
+        return items;
+    }
+
+    @Test
+    public void growKeepsEveryItem() {
+        assertEquals(1000, backpack.getNbOfItems());
+        for (Weapon weapon : weapons) {
+            assertTrue(backpack.contains(weapon));
+            assertEquals(1, backpack.getItemsWithIdentifier(weapon.getIdentifier()).size());
+        }
+        assertEquals(new HashSet<Item>(weapons), content(backpack));
+    }
+
+    @Test
+    public void removalsInsideProbeRuns() {
+        // removing every third item empties slots in the middle of probe runs
+        Set<Item> remaining = new HashSet<>();
+        for (int i = 0; i < weapons.size(); i++) {
+            if (i % 3 == 1) backpack.dropItem(weapons.get(i));
+            else remaining.add(weapons.get(i));
+        }
+        assertEquals(remaining.size(), backpack.getNbOfItems());
+        for (int i = 0; i < weapons.size(); i++) {
+            Weapon weapon = weapons.get(i);
+            assertEquals(i % 3 != 1, backpack.contains(weapon));
+            assertEquals(i % 3 != 1 ? 1 : 0, backpack.getItemsWithIdentifier(weapon.getIdentifier()).size());
+        }
+        assertEquals(remaining, content(backpack));
+    }
+
+    @Test
+    public void removeAndAddAgain() {
+        for (Weapon weapon : weapons) {
+            backpack.dropItem(weapon);
+        }
+        assertEquals(0, backpack.getNbOfItems());
+        assertFalse(backpack.iterator().hasMoreElements());
+        for (Weapon weapon : weapons) {
+            backpack.addItem(weapon);
+        }
+        assertEquals(new HashSet<Item>(weapons), content(backpack));
+    }
+
+    @Test
+    public void sharedIdentifiers() {
+        Backpack holder = new Backpack(1, new Weight(1, Unit.kg), new Weight(100000, Unit.kg));
+        List<Backpack> backpacks = new ArrayList<>();
+        // backpack identifiers restart after 62 powers of two
+        for (int i = 0; i < 3 * 62; i++) {
+            Backpack backpack = new Backpack(1, new Weight(1, Unit.g), new Weight(1, Unit.kg));
+            backpacks.add(backpack);
+            holder.addItem(backpack);
+        }
+        Backpack first = backpacks.get(0);
+        List<Item> sharing = holder.getItemsWithIdentifier(first.getIdentifier());
+        assertEquals(3, sharing.size());
+        assertTrue(sharing.contains(first));
+
+        holder.dropItem(first);
+        sharing = holder.getItemsWithIdentifier(first.getIdentifier());
+        assertEquals(2, sharing.size());
+        assertFalse(sharing.contains(first));
+        assertFalse(holder.contains(first));
+
+        for (Item item : new ArrayList<>(sharing)) {
+            holder.dropItem(item);
+        }
+        assertTrue(holder.getItemsWithIdentifier(first.getIdentifier()).isEmpty());
+        assertEquals(3 * 62 - 3, holder.getNbOfItems());
+        assertEquals(3 * 62 - 3, content(holder).size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void sharedIdentifierListIsReadOnly() {
+        backpack.getItemsWithIdentifier(weapons.get(0).getIdentifier()).clear();
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void iteratorFailsFastOnAdd() {
+        BackpackIterator iterator = backpack.iterator();
+        iterator.nextElement();
+        backpack.addItem(new Weapon(new Weight(1, Unit.g), 7));
+        iterator.nextElement();
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void iteratorFailsFastOnDrop() {
+        BackpackIterator iterator = backpack.iterator();
+        iterator.nextElement();
+        backpack.dropItem(weapons.get(500));
+        iterator.nextElement();
+    }
+}
@@ -0,0 +1,103 @@
+package rpg.inventory.test;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rpg.inventory.Backpack;
+import rpg.inventory.Ducat;
+import rpg.inventory.Item;
+import rpg.inventory.ItemRegistry;
+import rpg.inventory.Purse;
+import rpg.inventory.Weapon;
+import rpg.value.Weight;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ItemRegistryTest {
+
+    @Before
+    public void setUp() {
+        ItemRegistry.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        ItemRegistry.setEnabled(false);
+    }
+
+    @Test
+    public void lookupByIdentifier() {
+        Weapon weapon = new Weapon(new Weight(2), 7);
+        Backpack backpack = new Backpack(1, new Weight(1), new Weight(10));
+        assertSame(weapon, ItemRegistry.get(weapon.getIdentifier()));
+        assertTrue(ItemRegistry.getAll(backpack.getIdentifier()).contains(backpack));
+    }
+
+    @Test
+    public void registeredOnceWhenConstructed() {
+        Purse purse = new Purse(new Weight(1), new Weight(10), Ducat.getFlyweight());
+        List<Item> found = ItemRegistry.getAll(purse.getIdentifier());
+        assertEquals(1, found.stream().filter(item -> item == purse).count());
+    }
+
+    @Test
+    public void ducatsAreNotRegistered() {
+        Ducat ducat = new Ducat();
+        assertFalse(ItemRegistry.getAll(ducat.getIdentifier()).contains(ducat));
+        assertNull(ItemRegistry.get(-1));
+    }
+
+    @Test
+    public void unknownIdentifier() {
+        assertNull(ItemRegistry.get(-7));
+        assertTrue(ItemRegistry.getAll(-7).isEmpty());
+    }
+
+    @Test
+    public void disabledRegistry() {
+        ItemRegistry.setEnabled(false);
+        Weapon weapon = new Weapon(new Weight(2), 7);
+        assertFalse(ItemRegistry.getAll(weapon.getIdentifier()).contains(weapon));
+    }
+
+    @Test
+    public void unregisteredItemsAreRemoved() {
+        List<Weapon> weapons = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            weapons.add(new Weapon(new Weight(1), 7));
+        }
+        for (int i = 0; i < weapons.size(); i += 2) {
+            ItemRegistry.unregister(weapons.get(i));
+        }
+        for (int i = 0; i < weapons.size(); i++) {
+            Weapon weapon = weapons.get(i);
+            assertEquals(i % 2 == 1, ItemRegistry.getAll(weapon.getIdentifier()).contains(weapon));
+        }
+    }
+
+    @Test
+    public void unregisterSharedIdentifier() {
+        List<Backpack> backpacks = new ArrayList<>();
+        for (int i = 0; i < 3 * 62; i++) {
+            backpacks.add(new Backpack(1, new Weight(1), new Weight(10)));
+        }
+        Backpack first = backpacks.get(0);
+        List<Backpack> sharing = new ArrayList<>();
+        for (Backpack backpack : backpacks) {
+            if (backpack.getIdentifier() == first.getIdentifier()) sharing.add(backpack);
+        }
+        assertEquals(3, sharing.size());
+        ItemRegistry.unregister(sharing.get(0));
+        List<Item> found = ItemRegistry.getAll(first.getIdentifier());
+        assertFalse(found.contains(sharing.get(0)));
+        assertTrue(found.contains(sharing.get(1)));
+        assertTrue(found.contains(sharing.get(2)));
+        ItemRegistry.unregister(sharing.get(2));
+        found = ItemRegistry.getAll(first.getIdentifier());
+        assertTrue(found.contains(sharing.get(1)));
+        assertFalse(found.contains(sharing.get(2)));
+    }
+}
@@ -1,6 +1,13 @@
 package rpg.inventory.test;
 
 import org.junit.Before;
+import org.junit.Test;
+import rpg.exception.InvalidItemException;
+import rpg.inventory.Backpack;
+import rpg.inventory.Ducat;
+import rpg.inventory.Purse;
+import rpg.value.Unit;
+import rpg.value.Weight;
 
 import static org.junit.Assert.*;
 
@@ -8,10 +15,97 @@ import static org.junit.Assert.*;
  * Created by elias on 7/19/17.
  */
 public class PurseTest {
+
+    Purse purse;
+
     @Before
     public void setUp() {
+        purse = new Purse(new Weight(100, Unit.g), new Weight(100000, Unit.kg));
+    }
+
+    @Test
+    public void addDucatsBulk() {
+        purse.addDucats(1000000);
+        assertEquals(1000000, purse.getNbOfDucats());
+        assertEquals(1000000, purse.getValue());
+        assertTrue(new Weight(50000, Unit.kg).hasSameValue(purse.getWeightOfContents()));
+    }
+
+    @Test
+    public void addDucatFlyweight() {
+        purse.addDucat(Ducat.getFlyweight());
+        purse.addDucat(Ducat.getFlyweight());
+        assertEquals(2, purse.getNbOfItems());
+    }
+
+    @Test
+    public void removeDucats() {
+        purse.addDucats(10);
+        purse.removeDucats(4);
+        assertEquals(6, purse.getNbOfDucats());
+    }
+
+    @Test(expected = InvalidItemException.class)
+    public void removeTooManyDucats() {
+        purse.addDucats(3);
+        purse.removeDucats(4);
     }
 
+    @Test
+    public void tearWhenExceedingCapacity() {
+        Purse small = new Purse(new Weight(100, Unit.g), new Weight(1, Unit.kg));
+        small.addDucats(21);
+        assertTrue(small.isTorn());
+        assertEquals(0, small.getNbOfDucats());
+    }
 
+    @Test(expected = InvalidItemException.class)
+    public void addToTornPurse() {
+        Purse small = new Purse(new Weight(100, Unit.g), new Weight(1, Unit.kg));
+        small.addDucats(21);
+        small.addDucats(1);
+    }
+
+    @Test
+    public void addDucatsOverflowChangesNothing() {
+        Backpack backpack = new Backpack(0, new Weight(1, Unit.kg), new Weight(1000000000, Unit.kg));
+        backpack.addItem(purse);
+        purse.addDucats(10);
+        try {
+            purse.addDucats(Integer.MAX_VALUE + 1L);
+            fail();
+        } catch (ArithmeticException e) {
+            assertEquals(10, purse.getNbOfDucats());
+            assertEquals(10, backpack.getValueOfContent());
+        }
+    }
+
+    @Test
+    public void tearInBackpackMovesDucats() {
+        Backpack backpack = new Backpack(0, new Weight(1, Unit.kg), new Weight(10, Unit.kg));
+        Purse small = new Purse(new Weight(100, Unit.g), new Weight(1, Unit.kg));
+        backpack.addItem(small);
+        small.addDucats(21);
+        assertTrue(small.isTorn());
+        assertEquals(0, small.getNbOfDucats());
+        assertEquals(21, backpack.getNbOfDucats());
+        assertEquals(21, backpack.getValueOfContent());
+        assertTrue(new Weight(1150, Unit.g).hasSameValue(backpack.getWeightOfContents()));
+    }
+
+    @Test
+    public void ducatsFittingInBackpack() {
+        Backpack backpack = new Backpack(0, new Weight(1, Unit.kg), new Weight(1100, Unit.g));
+        Purse small = new Purse(new Weight(100, Unit.g), new Weight(1, Unit.kg));
+        backpack.addItem(small);
+        small.addDucats(20);
+        small.setCapacity(new Weight(500, Unit.g));
+        assertTrue(small.isTorn());
+        assertEquals(20, backpack.getNbOfDucats());
+        backpack.removeDucats(5);
+        assertEquals(5, backpack.getNbOfDucatsFitting(100));
+        assertEquals(3, backpack.getNbOfDucatsFitting(3));
+        assertEquals(0, new Backpack(0, null, new Weight(0, Unit.kg)).getNbOfDucatsFitting(5));
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package rpg.inventory.test;
+
+import rpg.Mobile;
+import rpg.inventory.AnchorType;
+import rpg.value.Weight;
+
+import java.util.EnumSet;
+
+/**
+ * A mobile with a fixed carrying capacity, holding items for the inventory tests.
+ */
+class TestMobile extends Mobile {
+
+    TestMobile(Weight capacity) {
+        super("Porter", 101, EnumSet.allOf(AnchorType.class));
+        this.capacity = capacity;
+    }
+
+    private final Weight capacity;
+
+    @Override
+    public boolean isValidName(String name) {
+        return name != null;
+    }
+
+    @Override
+    public boolean canAttack(Mobile target) {
+        return false;
+    }
+
+    @Override
+    public int generateAttackSeed() {
+        return 0;
+    }
+
+    @Override
+    public int calculateDamage() {
+        return getWeaponDamage();
+    }
+
+    @Override
+    public void onOpponentDeath() {
+    }
+
+    @Override
+    public Weight getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getProtection() {
+        return 0;
+    }
+}
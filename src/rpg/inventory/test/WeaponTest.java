@@ -2,7 +2,11 @@ package rpg.inventory.test;
 
 import org.junit.Before;
 import org.junit.Test;
+import rpg.exception.InvalidItemException;
+import rpg.inventory.AnchorType;
+import rpg.inventory.Backpack;
 import rpg.inventory.Weapon;
+import rpg.value.Unit;
 import rpg.value.Weight;
 
 import static org.junit.Assert.*;
@@ -14,9 +18,74 @@ public class WeaponTest {
 
     static Weapon one = null;
 
+    TestMobile porter;
+
     @Before
     public void setUp() throws Exception {
+        porter = new TestMobile(new Weight(100, Unit.kg));
+        one = new Weapon(new Weight(1, Unit.kg), 14);
+    }
+
+    @Test
+    public void damageCountedWhenHeld() {
+        assertEquals(0, porter.getWeaponDamage());
+        porter.addItemToAnchorpoint(AnchorType.rhand, one);
+        porter.addItemToAnchorpoint(AnchorType.lhand, new Weapon(new Weight(1, Unit.kg), 21));
+        assertEquals(35, porter.getWeaponDamage());
+    }
+
+    @Test
+    public void damageRemovedWhenDropped() {
+        porter.addItemToAnchorpoint(AnchorType.rhand, one);
+        porter.getAnchorpoint(AnchorType.rhand).dropItem();
+        assertTrue(one.isDestroyed());
+        assertEquals(0, porter.getWeaponDamage());
+    }
 
+    @Test
+    public void damageFollowsSetDamage() {
+        porter.addItemToAnchorpoint(AnchorType.rhand, one);
+        one.setDamage(70);
+        assertEquals(70, porter.getWeaponDamage());
+        one.setDamage(7);
+        assertEquals(7, porter.getWeaponDamage());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void damageKeptWhenMovedBetweenAnchorpoints() {
+        porter.addItemToAnchorpoint(AnchorType.rhand, one);
+        porter.getAnchorpoint(AnchorType.rhand).transferContentTo(porter.getAnchorpoint(AnchorType.lhand));
+        assertFalse(porter.getAnchorpoint(AnchorType.rhand).containsItem());
+        assertSame(one, porter.getAnchorpoint(AnchorType.lhand).getContent());
+        assertFalse(one.isDestroyed());
+        assertEquals(14, porter.getWeaponDamage());
+        one.setDamage(28);
+        assertEquals(28, porter.getWeaponDamage());
+    }
+
+    @Test
+    public void damageKeptWhenMoveIsRejected() {
+        porter.addItemToAnchorpoint(AnchorType.rhand, one);
+        porter.addItemToAnchorpoint(AnchorType.lhand, new Weapon(new Weight(1, Unit.kg), 7));
+        try {
+            porter.getAnchorpoint(AnchorType.rhand).transferContentTo(porter.getAnchorpoint(AnchorType.lhand));
+            fail("The left hand is taken.");
+        } catch (InvalidItemException e) {
+            assertSame(one, porter.getAnchorpoint(AnchorType.rhand).getContent());
+            assertEquals(21, porter.getWeaponDamage());
+        }
+    }
+
+    @Test
+    public void damageNotCountedInBackpack() {
+        Backpack backpack = new Backpack(1, new Weight(1, Unit.kg), new Weight(10, Unit.kg));
+        porter.addItemToAnchorpoint(AnchorType.back, backpack);
+        porter.addItemToAnchorpoint(AnchorType.rhand, one);
+        porter.getAnchorpoint(AnchorType.rhand).transferContentTo(backpack);
+        assertTrue(backpack.contains(one));
+        assertEquals(0, porter.getWeaponDamage());
+        one.setDamage(28);
+        assertEquals(0, porter.getWeaponDamage());
+        assertTrue(new Weight(2, Unit.kg).hasSameValue(porter.getCurrentCarriedWeight()));
+    }
+}
@@ -0,0 +1,215 @@
+package rpg.sim;
+
+import rpg.utility.RandomSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A class of engines running large numbers of encounters between heroes and
+ * monsters on a fork-join pool.
+ *
+ * @note Every round the hero attacks first, then the monster if it is still
+ * alive. An attack hits if a roll between 0 and 20, the roll of
+ * Hero.generateAttackSeed, is at least the protection of the defender, and then
+ * takes the damage of the attacker from the hitpoints of the defender.
+ *
+ * @note Encounters are split in ranges of at most LEAF_SIZE, each simulated by
+ * one worker with its own random source. The source of a range is seeded from
+ * the seed of the simulator and the start of the range, so a run gives the same
+ * result whatever thread simulates which range. Simulating a swing only reads
+ * ints and draws from the source, nothing is allocated per swing or per fight.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+public class CombatSimulator {
+
+    /*****************************
+     * Constants
+     *****************************/
+
+    /**
+     * Bound of the attack roll, exclusive.
+     */
+    public static final int ATTACK_ROLL_BOUND = 21;
+
+    /**
+     * Largest number of encounters simulated by a single task.
+     */
+    static final int LEAF_SIZE = 1024;
+
+    /**
+     * Odd constant spreading the starts of ranges over the seeds.
+     */
+    static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    /*****************************
+     * Constructors
+     *****************************/
+
+    /**
+     * Creates a new simulator running on the given pool.
+     *
+     * @param pool The pool to run on.
+     * @param seed The seed the random sources of the workers are derived from.
+     * @post If the pool is null, the common pool is used.
+     */
+    public CombatSimulator(ForkJoinPool pool, long seed) {
+        this.pool = pool == null ? ForkJoinPool.commonPool() : pool;
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a new simulator running on the common pool.
+     *
+     * @effect | this(ForkJoinPool.commonPool(), seed)
+     */
+    public CombatSimulator(long seed) {
+        this(ForkJoinPool.commonPool(), seed);
+    }
+
+    /*****************************
+     * Configuration
+     *****************************/
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    private final ForkJoinPool pool;
+
+    private final long seed;
+
+    /*****************************
+     * Running
+     *****************************/
+
+    /**
+     * Simulates all the given encounters.
+     *
+     * @param encounters The encounters to simulate.
+     * @return The aggregated results of all encounters.
+     * @throws IllegalArgumentException
+     *         If one of the encounters is not effective.
+     */
+    public SimulationResult run(List<Encounter> encounters) throws IllegalArgumentException {
+        return run(encounters, seed);
+    }
+
+    /**
+     * Simulates the given encounter the given number of times.
+     *
+     * @param encounter The encounter to simulate.
+     * @param times     The number of times to simulate it.
+     * @effect | run(Collections.nCopies(times, encounter))
+     * @throws IllegalArgumentException
+     *         If the encounter is not effective or the number of times is negative.
+     *       | encounter == null || times &lt; 0
+     */
+    public SimulationResult run(Encounter encounter, int times) throws IllegalArgumentException {
+        if (encounter == null) throw new IllegalArgumentException("Encounter contains null reference!");
+        if (times < 0) throw new IllegalArgumentException("Number of encounters is negative!");
+        return run(Collections.nCopies(times, encounter));
+    }
+
+    /**
+     * Simulates all the given encounters with random sources derived from the given seed.
+     */
+    SimulationResult run(List<Encounter> encounters, long seed) throws IllegalArgumentException {
+        if (encounters == null) throw new IllegalArgumentException("Encounters contain null reference!");
+        List<Encounter> indexed = encounters instanceof RandomAccess ? encounters : new ArrayList<>(encounters);
+        if (indexed.isEmpty()) return new SimulationResult();
+        return pool.invoke(new Task(indexed, 0, indexed.size(), seed));
+    }
+
+    /**
+     * A task simulating a range of encounters.
+     */
+    private static final class Task extends RecursiveTask<SimulationResult> {
+
+        private static final long serialVersionUID = -4712968015237446890L;
+
+        Task(List<Encounter> encounters, int from, int to, long seed) {
+            this.encounters = encounters;
+            this.from = from;
+            this.to = to;
+            this.seed = seed;
+        }
+
+        private final List<Encounter> encounters;
+
+        private final int from;
+
+        private final int to;
+
+        private final long seed;
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from <= LEAF_SIZE) {
+                RandomSource random = RandomSource.seeded(seed + from * SEED_STEP);
+                SimulationResult result = new SimulationResult();
+                for (int i = from; i < to; i++) {
+                    Encounter encounter = encounters.get(i);
+                    if (encounter == null) throw new IllegalArgumentException("Encounter contains null reference!");
+                    fight(encounter, random, result);
+                }
+                return result;
+            }
+            int mid = (from + to) >>> 1;
+            Task lower = new Task(encounters, from, mid, seed);
+            lower.fork();
+            SimulationResult upper = new Task(encounters, mid, to, seed).compute();
+            return lower.join().merge(upper);
+        }
+    }
+
+    /**
+     * Simulates the given encounter and records its outcome in the given result.
+     *
+     * @param encounter The encounter to simulate.
+     * @param random    The source of the attack rolls.
+     * @param result    The result to record the outcome in.
+     */
+    static void fight(Encounter encounter, RandomSource random, SimulationResult result) {
+        Combatant hero = encounter.getHero();
+        Combatant monster = encounter.getMonster();
+        int heroHitpoints = hero.getHitpoints();
+        int monsterHitpoints = monster.getHitpoints();
+        int damageByHero = 0;
+        int damageByMonster = 0;
+        int winner = SimulationResult.DRAW;
+        int round = 0;
+        while (round < encounter.getMaxRounds()) {
+            round++;
+            if (random.nextInt(ATTACK_ROLL_BOUND) >= monster.getProtection()) {
+                int damage = Math.min(hero.getDamage(), monsterHitpoints);
+                monsterHitpoints -= damage;
+                damageByHero += damage;
+                if (monsterHitpoints == 0) {
+                    winner = SimulationResult.HERO;
+                    break;
+                }
+            }
+            if (random.nextInt(ATTACK_ROLL_BOUND) >= hero.getProtection()) {
+                int damage = Math.min(monster.getDamage(), heroHitpoints);
+                heroHitpoints -= damage;
+                damageByMonster += damage;
+                if (heroHitpoints == 0) {
+                    winner = SimulationResult.MONSTER;
+                    break;
+                }
+            }
+        }
+        result.record(winner, round, damageByHero, damageByMonster);
+    }
+}
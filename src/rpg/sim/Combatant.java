@@ -0,0 +1,115 @@
+package rpg.sim;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+import rpg.Mobile;
+
+/**
+ * A class of immutable snapshots of the combat statistics of a mobile.
+ *
+ * @invar The hitpoints, protection and damage are never negative.
+ * | getHitpoints() &gt;= 0 && getProtection() &gt;= 0 && getDamage() &gt;= 0
+ *
+ * @note Damage and protection are computed once when the snapshot is taken, so a
+ * simulated swing only compares and subtracts ints instead of recomputing the
+ * damage of the mobile and its weapons every time.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+@Value
+public final class Combatant {
+
+    /*****************************
+     * Constructors
+     *****************************/
+
+    /**
+     * Creates a new combatant with the given statistics.
+     *
+     * @param hitpoints  Hitpoints the combatant starts a fight with.
+     * @param protection Lowest attack roll that hits the combatant.
+     * @param damage     Damage the combatant does with a successful hit.
+     * @post Negative values are replaced by zero.
+     * | getHitpoints() == max(0, hitpoints)
+     * | getProtection() == max(0, protection)
+     * | getDamage() == max(0, damage)
+     */
+    public Combatant(int hitpoints, int protection, int damage) {
+        this.hitpoints = Math.max(0, hitpoints);
+        this.protection = Math.max(0, protection);
+        this.damage = Math.max(0, damage);
+    }
+
+    /**
+     * Takes a snapshot of the current statistics of the given mobile.
+     *
+     * @param mobile The mobile to take a snapshot of.
+     * @return | result.getHitpoints() == mobile.getCurrentHitpoints()
+     *         | result.getProtection() == mobile.getProtection()
+     *         | result.getDamage() == mobile.calculateDamage()
+     */
+    public static Combatant of(Mobile mobile) {
+        return new Combatant(mobile.getCurrentHitpoints(), mobile.getProtection(), mobile.calculateDamage());
+    }
+
+    /*****************************
+     * Statistics
+     *****************************/
+
+    /**
+     * Returns the hitpoints this combatant starts a fight with.
+     */
+    @Basic
+    @Immutable
+    public int getHitpoints() {
+        return hitpoints;
+    }
+
+    /**
+     * Returns the lowest attack roll that hits this combatant.
+     */
+    @Basic
+    @Immutable
+    public int getProtection() {
+        return protection;
+    }
+
+    /**
+     * Returns the damage this combatant does with a successful hit.
+     */
+    @Basic
+    @Immutable
+    public int getDamage() {
+        return damage;
+    }
+
+    private final int hitpoints;
+
+    private final int protection;
+
+    private final int damage;
+
+    /*****************************
+     * Value methods
+     *****************************/
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof Combatant)) return false;
+        Combatant that = (Combatant) other;
+        return hitpoints == that.hitpoints && protection == that.protection && damage == that.damage;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * hitpoints + protection) + damage;
+    }
+
+    @Override
+    public String toString() {
+        return "Combatant(hp " + hitpoints + ", protection " + protection + ", damage " + damage + ")";
+    }
+}
@@ -0,0 +1,92 @@
+package rpg.sim;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of immutable fights between a hero and a monster, limited to a
+ * number of rounds.
+ *
+ * @invar The hero and the monster are effective.
+ * | getHero() != null && getMonster() != null
+ * @invar The number of rounds is at least one.
+ * | getMaxRounds() &gt;= 1
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+@Value
+public final class Encounter {
+
+    /*****************************
+     * Constructor
+     *****************************/
+
+    /**
+     * Creates a new encounter.
+     *
+     * @param hero      The combatant attacking first every round.
+     * @param monster   The combatant attacking second every round.
+     * @param maxRounds Number of rounds after which the fight is a draw.
+     * @throws IllegalArgumentException
+     *         If a combatant is not effective or the number of rounds is smaller than one.
+     *       | hero == null || monster == null || maxRounds &lt; 1
+     */
+    public Encounter(Combatant hero, Combatant monster, int maxRounds) throws IllegalArgumentException {
+        if (hero == null || monster == null) {
+            throw new IllegalArgumentException("An encounter needs a hero and a monster!");
+        }
+        if (maxRounds < 1) {
+            throw new IllegalArgumentException("An encounter lasts at least one round!");
+        }
+        this.hero = hero;
+        this.monster = monster;
+        this.maxRounds = maxRounds;
+    }
+
+    /*****************************
+     * Getters
+     *****************************/
+
+    @Basic
+    @Immutable
+    public Combatant getHero() {
+        return hero;
+    }
+
+    @Basic
+    @Immutable
+    public Combatant getMonster() {
+        return monster;
+    }
+
+    @Basic
+    @Immutable
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    private final Combatant hero;
+
+    private final Combatant monster;
+
+    private final int maxRounds;
+
+    /*****************************
+     * Value methods
+     *****************************/
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof Encounter)) return false;
+        Encounter that = (Encounter) other;
+        return hero.equals(that.hero) && monster.equals(that.monster) && maxRounds == that.maxRounds;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * hero.hashCode() + monster.hashCode()) + maxRounds;
+    }
+}
@@ -0,0 +1,108 @@
+package rpg.sim;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of estimates of a probability with a confidence interval.
+ *
+ * @invar The estimate lies within its interval, which lies within [0, 1].
+ * | 0 &lt;= getLowerBound() &lt;= getProbability() &lt;= getUpperBound() &lt;= 1
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+@Value
+public final class Estimate {
+
+    /**
+     * Creates a new estimate.
+     *
+     * @param probability Estimated probability.
+     * @param lowerBound  Lower bound of the confidence interval.
+     * @param upperBound  Upper bound of the confidence interval.
+     * @param nbOfTrials  Number of trials the estimate is based on.
+     * @param converged   Whether the interval reached the requested width.
+     */
+    Estimate(double probability, double lowerBound, double upperBound, long nbOfTrials, boolean converged) {
+        this.probability = probability;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.nbOfTrials = nbOfTrials;
+        this.converged = converged;
+    }
+
+    @Basic
+    @Immutable
+    public double getProbability() {
+        return probability;
+    }
+
+    @Basic
+    @Immutable
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    @Basic
+    @Immutable
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Returns the width of the confidence interval.
+     *
+     * @return | getUpperBound() - getLowerBound()
+     */
+    public double getWidth() {
+        return upperBound - lowerBound;
+    }
+
+    @Basic
+    @Immutable
+    public long getNbOfTrials() {
+        return nbOfTrials;
+    }
+
+    /**
+     * Returns whether the interval reached the requested width before the maximum
+     * number of trials was used.
+     */
+    @Basic
+    @Immutable
+    public boolean isConverged() {
+        return converged;
+    }
+
+    private final double probability;
+
+    private final double lowerBound;
+
+    private final double upperBound;
+
+    private final long nbOfTrials;
+
+    private final boolean converged;
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof Estimate)) return false;
+        Estimate that = (Estimate) other;
+        return probability == that.probability && lowerBound == that.lowerBound
+                && upperBound == that.upperBound && nbOfTrials == that.nbOfTrials
+                && converged == that.converged;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(probability) + Long.hashCode(nbOfTrials);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.4f [%.4f, %.4f] after %d trials", probability, lowerBound, upperBound, nbOfTrials);
+    }
+}
@@ -0,0 +1,101 @@
+package rpg.sim;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A class of histograms counting non-negative values in buckets of equal width.
+ *
+ * @invar The last bucket also counts every value beyond the range of the buckets.
+ * @note Histograms are only filled in by the simulation, outside this package
+ * they are read-only.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+public final class Histogram {
+
+    /*****************************
+     * Constructor
+     *****************************/
+
+    /**
+     * Creates a new, empty histogram.
+     *
+     * @param bucketWidth  Width of every bucket, at least one.
+     * @param nbOfBuckets  Number of buckets, at least one.
+     */
+    Histogram(int bucketWidth, int nbOfBuckets) {
+        this.bucketWidth = Math.max(1, bucketWidth);
+        this.counts = new long[Math.max(1, nbOfBuckets)];
+    }
+
+    /*****************************
+     * Inspectors
+     *****************************/
+
+    @Basic
+    @Immutable
+    public int getBucketWidth() {
+        return bucketWidth;
+    }
+
+    @Basic
+    @Immutable
+    public int getNbOfBuckets() {
+        return counts.length;
+    }
+
+    /**
+     * Returns the number of values counted in the given bucket.
+     *
+     * @param bucket Index of the bucket.
+     * @return The number of values v with v / getBucketWidth() == bucket, the last bucket
+     * also counts all larger values.
+     * @throws IndexOutOfBoundsException
+     *         | bucket &lt; 0 || bucket &gt;= getNbOfBuckets()
+     */
+    public long getCount(int bucket) throws IndexOutOfBoundsException {
+        return counts[bucket];
+    }
+
+    /**
+     * Returns the number of values counted in all buckets.
+     */
+    public long getTotal() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    private final int bucketWidth;
+
+    private final long[] counts;
+
+    /*****************************
+     * Mutators
+     *****************************/
+
+    /**
+     * Counts the given value.
+     *
+     * @param value A non-negative value.
+     */
+    void record(int value) {
+        counts[Math.min(value / bucketWidth, counts.length - 1)]++;
+    }
+
+    /**
+     * Adds the counts of the given histogram to this one.
+     *
+     * @pre The histograms have the same buckets.
+     * | other.getBucketWidth() == getBucketWidth() && other.getNbOfBuckets() == getNbOfBuckets()
+     */
+    void merge(Histogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package rpg.sim;
+
+/**
+ * A class of aggregated results of a number of simulated encounters.
+ *
+ * @invar Every encounter is counted as exactly one of a hero win, a monster win
+ * or a draw.
+ * | getNbOfEncounters() == getHeroWins() + getMonsterWins() + getDraws()
+ * @note Results are only filled in by the simulation, outside this package they
+ * are read-only. Every worker fills in its own result, which are merged when the
+ * workers are joined, so recording an encounter never needs a lock.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+public final class SimulationResult {
+
+    /*****************************
+     * Constants
+     *****************************/
+
+    /**
+     * Number of buckets of the rounds histogram, which has buckets of one round.
+     */
+    public static final int ROUND_BUCKETS = 256;
+
+    /**
+     * Width of the buckets of the damage histograms.
+     */
+    public static final int DAMAGE_BUCKET_WIDTH = 10;
+
+    /**
+     * Number of buckets of the damage histograms.
+     */
+    public static final int DAMAGE_BUCKETS = 256;
+
+    /*****************************
+     * Constructor
+     *****************************/
+
+    /**
+     * Creates a new, empty result.
+     */
+    SimulationResult() {
+    }
+
+    /*****************************
+     * Outcomes
+     *****************************/
+
+    /**
+     * Returns the number of encounters simulated.
+     */
+    public long getNbOfEncounters() {
+        return heroWins + monsterWins + draws;
+    }
+
+    /**
+     * Returns the number of encounters in which the monster died.
+     */
+    public long getHeroWins() {
+        return heroWins;
+    }
+
+    /**
+     * Returns the number of encounters in which the hero died.
+     */
+    public long getMonsterWins() {
+        return monsterWins;
+    }
+
+    /**
+     * Returns the number of encounters that reached their maximum number of rounds.
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    /**
+     * Returns the fraction of the encounters won by the hero.
+     *
+     * @return | if getNbOfEncounters() == 0 return 0
+     *         | else return getHeroWins() / getNbOfEncounters()
+     */
+    public double getHeroWinRate() {
+        long total = getNbOfEncounters();
+        return total == 0 ? 0 : (double) heroWins / total;
+    }
+
+    /**
+     * Returns the fraction of the encounters won by the monster.
+     *
+     * @return | if getNbOfEncounters() == 0 return 0
+     *         | else return getMonsterWins() / getNbOfEncounters()
+     */
+    public double getMonsterWinRate() {
+        long total = getNbOfEncounters();
+        return total == 0 ? 0 : (double) monsterWins / total;
+    }
+
+    private long heroWins = 0;
+
+    private long monsterWins = 0;
+
+    private long draws = 0;
+
+    /*****************************
+     * Rounds and damage
+     *****************************/
+
+    /**
+     * Returns the average number of rounds an encounter lasted.
+     */
+    public double getAverageRounds() {
+        long total = getNbOfEncounters();
+        return total == 0 ? 0 : (double) totalRounds / total;
+    }
+
+    /**
+     * Returns the total damage dealt by heroes over all encounters.
+     */
+    public long getTotalHeroDamage() {
+        return totalHeroDamage;
+    }
+
+    /**
+     * Returns the total damage dealt by monsters over all encounters.
+     */
+    public long getTotalMonsterDamage() {
+        return totalMonsterDamage;
+    }
+
+    /**
+     * Returns the histogram of the number of rounds the encounters lasted.
+     */
+    public Histogram getRoundsHistogram() {
+        return rounds;
+    }
+
+    /**
+     * Returns the histogram of the damage the hero dealt per encounter.
+     */
+    public Histogram getHeroDamageHistogram() {
+        return heroDamage;
+    }
+
+    /**
+     * Returns the histogram of the damage the monster dealt per encounter.
+     */
+    public Histogram getMonsterDamageHistogram() {
+        return monsterDamage;
+    }
+
+    private long totalRounds = 0;
+
+    private long totalHeroDamage = 0;
+
+    private long totalMonsterDamage = 0;
+
+    private final Histogram rounds = new Histogram(1, ROUND_BUCKETS);
+
+    private final Histogram heroDamage = new Histogram(DAMAGE_BUCKET_WIDTH, DAMAGE_BUCKETS);
+
+    private final Histogram monsterDamage = new Histogram(DAMAGE_BUCKET_WIDTH, DAMAGE_BUCKETS);
+
+    /*****************************
+     * Mutators
+     *****************************/
+
+    /**
+     * Counts the outcome of one encounter.
+     *
+     * @param winner        HERO, MONSTER or DRAW.
+     * @param nbOfRounds    Rounds the encounter lasted.
+     * @param damageByHero  Damage the hero dealt.
+     * @param damageByMonster Damage the monster dealt.
+     */
+    void record(int winner, int nbOfRounds, int damageByHero, int damageByMonster) {
+        if (winner == HERO) heroWins++;
+        else if (winner == MONSTER) monsterWins++;
+        else draws++;
+        totalRounds += nbOfRounds;
+        totalHeroDamage += damageByHero;
+        totalMonsterDamage += damageByMonster;
+        rounds.record(nbOfRounds);
+        heroDamage.record(damageByHero);
+        monsterDamage.record(damageByMonster);
+    }
+
+    /**
+     * Adds the results of the given other result to this one.
+     *
+     * @param other The result to merge.
+     * @return This result.
+     */
+    SimulationResult merge(SimulationResult other) {
+        heroWins += other.heroWins;
+        monsterWins += other.monsterWins;
+        draws += other.draws;
+        totalRounds += other.totalRounds;
+        totalHeroDamage += other.totalHeroDamage;
+        totalMonsterDamage += other.totalMonsterDamage;
+        rounds.merge(other.rounds);
+        heroDamage.merge(other.heroDamage);
+        monsterDamage.merge(other.monsterDamage);
+        return this;
+    }
+
+    static final int DRAW = 0;
+
+    static final int HERO = 1;
+
+    static final int MONSTER = 2;
+}
@@ -0,0 +1,187 @@
+package rpg.sim;
+
+import java.util.Collections;
+
+/**
+ * A class of estimators of the probability that the hero wins an encounter,
+ * simulating batches of fights until the confidence interval is narrow enough.
+ *
+ * @note Every batch is simulated in parallel by the simulator. After a batch the
+ * Wilson score interval of the wins so far is computed, and the estimator stops as
+ * soon as it is no wider than requested. The next batch is sized from the number of
+ * trials the current estimate predicts are needed, but at most doubles the trials
+ * so far, so easy questions stop after a few thousand fights.
+ *
+ * @note Batch k is seeded as if it were the continuation of one long run of the
+ * simulator, so an estimate is reproducible for the same seed. Stopping on the width
+ * of the interval makes its coverage very slightly lower than the nominal confidence.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+public class WinProbabilityEstimator {
+
+    /*****************************
+     * Constants
+     *****************************/
+
+    /**
+     * Default number of trials in the first batch.
+     */
+    public static final int DEFAULT_INITIAL_BATCH = 4096;
+
+    /**
+     * Default largest number of trials used for one estimate.
+     */
+    public static final long DEFAULT_MAX_TRIALS = 10_000_000L;
+
+    /*****************************
+     * Constructors
+     *****************************/
+
+    /**
+     * Creates a new estimator.
+     *
+     * @param simulator    The simulator running the fights.
+     * @param initialBatch Number of trials in the first batch, at least one.
+     * @param maxTrials    Largest number of trials used for one estimate, at least one.
+     * @throws IllegalArgumentException
+     *         | simulator == null
+     */
+    public WinProbabilityEstimator(CombatSimulator simulator, int initialBatch, long maxTrials)
+            throws IllegalArgumentException {
+        if (simulator == null) throw new IllegalArgumentException("Simulator contains null reference!");
+        this.simulator = simulator;
+        this.initialBatch = Math.max(1, initialBatch);
+        this.maxTrials = Math.max(1, maxTrials);
+    }
+
+    /**
+     * Creates a new estimator with the default batch size and maximum number of trials.
+     *
+     * @effect | this(simulator, DEFAULT_INITIAL_BATCH, DEFAULT_MAX_TRIALS)
+     */
+    public WinProbabilityEstimator(CombatSimulator simulator) throws IllegalArgumentException {
+        this(simulator, DEFAULT_INITIAL_BATCH, DEFAULT_MAX_TRIALS);
+    }
+
+    private final CombatSimulator simulator;
+
+    private final int initialBatch;
+
+    private final long maxTrials;
+
+    /*****************************
+     * Estimation
+     *****************************/
+
+    /**
+     * Estimates the probability that the hero wins the given encounter.
+     *
+     * @param encounter  The encounter to estimate.
+     * @param width      Largest acceptable width of the confidence interval.
+     * @param confidence Confidence level of the interval, between 0 and 1.
+     * @return An estimate whose interval is at most the given width wide, unless the
+     *         maximum number of trials has been used.
+     * | result.isConverged() == (result.getWidth() &lt;= width)
+     * @throws IllegalArgumentException
+     *         | encounter == null || !(width &gt; 0) || !(0 &lt; confidence &lt; 1)
+     */
+    public Estimate estimate(Encounter encounter, double width, double confidence)
+            throws IllegalArgumentException {
+        if (encounter == null) throw new IllegalArgumentException("Encounter contains null reference!");
+        if (!(width > 0)) throw new IllegalArgumentException("Width must be positive!");
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Confidence must lie between 0 and 1!");
+        }
+        double z = inverseNormal(0.5 + confidence / 2);
+        long trials = 0;
+        long wins = 0;
+        long batch = Math.min(initialBatch, maxTrials);
+        while (true) {
+            SimulationResult result = simulator.run(Collections.nCopies((int) batch, encounter),
+                    simulator.getSeed() + trials * CombatSimulator.SEED_STEP);
+            trials += batch;
+            wins += result.getHeroWins();
+            double[] interval = wilson(wins, trials, z);
+            boolean converged = interval[1] - interval[0] <= width;
+            if (converged || trials >= maxTrials) {
+                return new Estimate((double) wins / trials, interval[0], interval[1], trials, converged);
+            }
+            batch = nextBatch(wins, trials, z, width);
+        }
+    }
+
+    /**
+     * Estimates the probability that the hero wins the given encounter with 95% confidence.
+     *
+     * @effect | estimate(encounter, width, 0.95)
+     */
+    public Estimate estimate(Encounter encounter, double width) throws IllegalArgumentException {
+        return estimate(encounter, width, 0.95);
+    }
+
+    /**
+     * Calculates the size of the next batch.
+     *
+     * @return The number of trials the current estimate needs for the interval to
+     * become narrow enough, at least the initial batch and at most the trials so far,
+     * without passing the maximum number of trials.
+     */
+    private long nextBatch(long wins, long trials, double z, double width) {
+        // Agresti-Coull centre, so a run without wins or losses still predicts a size
+        double p = (wins + z * z / 2) / (trials + z * z);
+        double half = width / 2;
+        double needed = z * z * p * (1 - p) / (half * half) - z * z;
+        long batch = (long) Math.ceil(needed) - trials;
+        batch = Math.max(initialBatch, Math.min(batch, trials));
+        batch = Math.min(batch, Integer.MAX_VALUE);
+        return Math.min(batch, maxTrials - trials);
+    }
+
+    /**
+     * Calculates the Wilson score interval of the given number of successes.
+     *
+     * @return An array with the lower and the upper bound.
+     */
+    static double[] wilson(long successes, long trials, double z) {
+        double n = trials;
+        double p = successes / n;
+        double z2 = z * z;
+        double denominator = 1 + z2 / n;
+        double centre = (p + z2 / (2 * n)) / denominator;
+        double half = z / denominator * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n));
+        return new double[]{Math.max(0, centre - half), Math.min(1, centre + half)};
+    }
+
+    /**
+     * Calculates the quantile of the standard normal distribution for the given
+     * probability, with a relative error below 1.2e-9.
+     *
+     * @param p Probability, between 0 and 1.
+     * @note Rational approximation of P. J. Acklam.
+     */
+    static double inverseNormal(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        } else if (p <= 1 - low) {
+            double q = p - 0.5;
+            double r = q * q;
+            return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                    / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+        } else {
+            return -inverseNormal(1 - p);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package rpg.sim.test;
+
+import org.junit.Before;
+import org.junit.Test;
+import rpg.sim.CombatSimulator;
+import rpg.sim.Combatant;
+import rpg.sim.Encounter;
+import rpg.sim.SimulationResult;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class CombatSimulatorTest {
+
+    Encounter encounter;
+
+    @Before
+    public void setUp() {
+        encounter = new Encounter(new Combatant(101, 10, 7), new Combatant(89, 8, 6), 200);
+    }
+
+    @Test
+    public void allEncountersCounted() {
+        SimulationResult result = new CombatSimulator(1).run(encounter, 10000);
+        assertEquals(10000, result.getNbOfEncounters());
+        assertEquals(10000, result.getRoundsHistogram().getTotal());
+        assertEquals(1.0, result.getHeroWinRate() + result.getMonsterWinRate()
+                + (double) result.getDraws() / result.getNbOfEncounters(), 1e-9);
+    }
+
+    @Test
+    public void reproducibleOnAnyPool() {
+        SimulationResult single = new CombatSimulator(new ForkJoinPool(1), 5).run(encounter, 10000);
+        SimulationResult several = new CombatSimulator(new ForkJoinPool(4), 5).run(encounter, 10000);
+        assertEquals(single.getHeroWins(), several.getHeroWins());
+        assertEquals(single.getTotalHeroDamage(), several.getTotalHeroDamage());
+    }
+
+    @Test
+    public void roundsCap() {
+        Encounter harmless = new Encounter(new Combatant(11, 30, 0), new Combatant(11, 30, 0), 5);
+        SimulationResult result = new CombatSimulator(1).run(harmless, 100);
+        assertEquals(100, result.getDraws());
+        assertEquals(5.0, result.getAverageRounds(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeTimes() {
+        new CombatSimulator(1).run(encounter, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encounterWithoutMonster() {
+        new Encounter(new Combatant(11, 10, 1), null, 5);
+    }
+}
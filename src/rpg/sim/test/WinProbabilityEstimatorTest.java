@@ -0,0 +1,50 @@
+package rpg.sim.test;
+
+import org.junit.Before;
+import org.junit.Test;
+import rpg.sim.CombatSimulator;
+import rpg.sim.Combatant;
+import rpg.sim.Encounter;
+import rpg.sim.Estimate;
+import rpg.sim.WinProbabilityEstimator;
+
+import static org.junit.Assert.*;
+
+public class WinProbabilityEstimatorTest {
+
+    WinProbabilityEstimator estimator;
+    Encounter encounter;
+
+    @Before
+    public void setUp() {
+        estimator = new WinProbabilityEstimator(new CombatSimulator(9));
+        encounter = new Encounter(new Combatant(61, 10, 7), new Combatant(89, 8, 7), 200);
+    }
+
+    @Test
+    public void stopsAtRequestedWidth() {
+        Estimate estimate = estimator.estimate(encounter, 0.01);
+        assertTrue(estimate.isConverged());
+        assertTrue(estimate.getWidth() <= 0.01);
+        assertTrue(estimate.getLowerBound() <= estimate.getProbability());
+        assertTrue(estimate.getProbability() <= estimate.getUpperBound());
+    }
+
+    @Test
+    public void stopsAtMaximumTrials() {
+        Estimate estimate = new WinProbabilityEstimator(new CombatSimulator(9), 100, 1000)
+                .estimate(encounter, 0.0001);
+        assertFalse(estimate.isConverged());
+        assertEquals(1000, estimate.getNbOfTrials());
+    }
+
+    @Test
+    public void reproducible() {
+        assertEquals(estimator.estimate(encounter, 0.02), estimator.estimate(encounter, 0.02));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidConfidence() {
+        estimator.estimate(encounter, 0.01, 1);
+    }
+}
@@ -0,0 +1,102 @@
+package rpg.test;
+
+import org.junit.Test;
+import rpg.Hero;
+import rpg.value.Strength;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HeroTest {
+
+    static Weight maximum = new Weight(BigDecimal.valueOf(Long.MAX_VALUE, Unit.kg.getPrecision()));
+
+    static Weight capacity(long hundredths) {
+        return Hero.getCapacity(Strength.valueOf(hundredths));
+    }
+
+    @Test
+    public void capacityUpToTwenty() {
+        assertEquals(Weight.kg_0, capacity(99));
+        assertEquals(new Weight(10), capacity(100));
+        assertEquals(new Weight(100), capacity(1000));
+        assertEquals(new Weight(115), capacity(1001));
+        assertEquals(new Weight(350), capacity(1900));
+        assertEquals(new Weight(400), capacity(1901));
+        assertEquals(new Weight(400), capacity(2000));
+    }
+
+    @Test
+    public void capacityOfFirstExtension() {
+        assertEquals(new Weight(460), capacity(2001));
+        assertEquals(new Weight(1600), capacity(3000));
+        assertEquals(new Weight(1840), capacity(3001));
+    }
+
+    @Test
+    public void capacitySaturates() {
+        assertEquals(maximum, capacity(19700));
+        assertEquals(maximum, capacity(1000000));
+        assertFalse(capacity(18000).hasSameValue(maximum));
+        for (long hundredths = 18001; hundredths <= 20000; hundredths++) {
+            assertTrue(capacity(hundredths).compareTo(capacity(hundredths - 1)) >= 0);
+        }
+    }
+
+    /**
+     * Names with whether they are valid names for a hero. The baseline checked names
+     * with the pattern below, which accepts neither colons nor apostrophes.
+     */
+    static final Object[][] NAMES = {
+            {"Jo", true}, {"James", true}, {"James Bond", true}, {"AB", true},
+            {"James  Bond", true}, {"James ", true}, {"A ", true},
+            {"", false}, {"J", false}, {"james", false}, {" James", false},
+            {"James: Bond", false}, {"James:Bond", false}, {"O'Neill", false},
+            {"James2", false}, {"Jam\u00e9s", false}, {"\u00c9mile", false}, {"J-B", false},
+            {"James\tBond", false}
+    };
+
+    static final String BASELINE_PATTERN = "^[A-Z][A-Za-z ]+";
+
+    @Test
+    public void heroNames() {
+        for (Object[] entry : NAMES) {
+            String name = (String) entry[0];
+            assertEquals(name, entry[1], Hero.isValidHeroName(name));
+            assertEquals(name, entry[1], name.matches(BASELINE_PATTERN));
+            assertEquals(name, entry[1], Hero.isValidHeroName(new StringBuilder(name)));
+        }
+        assertFalse(Hero.isValidHeroName(null));
+    }
+
+    @Test
+    public void validateHeroNames() {
+        CharSequence[] names = new CharSequence[NAMES.length + 2];
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < NAMES.length; i++) {
+            names[i] = (String) NAMES[i][0];
+            if (!(Boolean) NAMES[i][1]) expected.add(i);
+        }
+        names[NAMES.length] = null;
+        expected.add(NAMES.length);
+        names[NAMES.length + 1] = "Anna";
+        int[] failures = Hero.validateNames(names);
+        assertEquals(expected.size(), failures.length);
+        for (int i = 0; i < failures.length; i++) {
+            assertEquals((int) expected.get(i), failures[i]);
+        }
+        assertEquals(0, Hero.validateNames(new CharSequence[0]).length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateHeroNamesNull() {
+        Hero.validateNames(null);
+    }
+}
@@ -0,0 +1,66 @@
+package rpg.test;
+
+import org.junit.Test;
+import rpg.Monster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class MonsterTest {
+
+    /**
+     * Names with whether they are valid names for a monster. The baseline checked names
+     * with the pattern below, which accepts apostrophes anywhere after the first letter.
+     */
+    static final Object[][] NAMES = {
+            {"Jo", true}, {"Shelob", true}, {"Shelob's Lair", true}, {"O'Neill", true},
+            {"A'''", true}, {"Ab'", true}, {"Big  Bad", true}, {"Orc ", true},
+            {"", false}, {"O", false}, {"orc", false}, {"'Orc", false}, {" Orc", false},
+            {"Orc: Chief", false}, {"Orc:Chief", false}, {"Orc2", false}, {"Or\u00e7", false},
+            {"Orc-Chief", false}, {"Orc\tChief", false}, {"Orc\u2019s", false}
+    };
+
+    static final String BASELINE_PATTERN = "^[A-Z][A-Za-z ']+";
+
+    @Test
+    public void monsterNames() {
+        for (Object[] entry : NAMES) {
+            String name = (String) entry[0];
+            assertEquals(name, entry[1], Monster.isValidMonsterName(name));
+            assertEquals(name, entry[1], name.matches(BASELINE_PATTERN));
+            assertEquals(name, entry[1], Monster.isValidMonsterName(new StringBuilder(name)));
+        }
+        assertFalse(Monster.isValidMonsterName(null));
+    }
+
+    @Test
+    public void validateMonsterNames() {
+        List<CharSequence> names = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        // more failures than the initial room for them
+        for (int i = 0; i < 40; i++) {
+            if (i % 3 == 0) {
+                names.add("orc " + i);
+                expected.add(i);
+            } else {
+                names.add("Orc");
+            }
+        }
+        int[] failures = Monster.validateNames(names.toArray(new CharSequence[0]));
+        int[] expectedFailures = new int[expected.size()];
+        for (int i = 0; i < expectedFailures.length; i++) {
+            expectedFailures[i] = expected.get(i);
+        }
+        assertArrayEquals(expectedFailures, failures);
+        assertArrayEquals(new int[]{1, 2}, Monster.validateNames(new CharSequence[]{"Orc", null, "o'Neill"}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void validateMonsterNamesNull() {
+        Monster.validateNames(null);
+    }
+}
@@ -12,87 +12,56 @@ package rpg.utility;
  *        @see <a href="https://en.wikipedia.org/wiki/Pascal%27s_triangle#Rows">Informal proof</a>
  *
  * @author Elias Storme
- * @version 1.1
+ * @version 2.0
  */
-public class BinomialGenerator implements IDGenerator {
+public class BinomialGenerator extends SequenceIDGenerator {
 
     /*****************************
-     * Constructor
+     * Constants
      *****************************/
 
     /**
-     * Creates a new Binomialgenerator.
-     *
-     * @effect Uses the reset method to initialise all values to their
-     * initial state.
-     * | reset()
+     * Number of rows, starting from the row n = 1, whose sum fits a long.
      */
-    public BinomialGenerator() {
-        reset();
-    }
+    private static final long NB_OF_ROWS = 62;
 
     /*****************************
-     * Interface method
+     * Constructor
      *****************************/
 
     /**
-     * Generates an ID.
+     * Creates a new Binomialgenerator.
      *
-     * @return The next sequential ID
-     * | return nextID()
-     * @effect Advances the generator one step.
-     * @effect If there is no next sequential ID, reset the generator.
-     * | if !hasNextID()
-     * |      reset()
+     * @effect The generator starts at the row n = 1.
+     * | this(IDPartition.SINGLE)
      */
-    @Override
-    public long generateID() {
-        if (!hasNextID()) {
-            reset();
-        }
-        return nextID();
+    public BinomialGenerator() {
+        this(IDPartition.SINGLE);
     }
 
-    /*****************************
-     * State variable and mutator
-     *****************************/
-
     /**
-     * Resets the generator to it's initial state
-     * @effect The state variable current is set to 1.
+     * Creates a new Binomialgenerator that only generates the rows of the given partition.
+     *
+     * @param partition
+     *        Partition of the rows this generator generates.
+     * @effect | super(NB_OF_ROWS, partition)
      */
-    public void reset(){
-        current = 1L;
+    public BinomialGenerator(IDPartition partition) {
+        super(NB_OF_ROWS, partition);
     }
 
-    long current;
-
     /*****************************
      * Calculation
      *****************************/
 
     /**
-     * Calculates the sequentially next ID, advances the generator.
-     *
-     * @return The next ID. This is just the state variable.
-     * | return current
-     * @effect The state variable is multiplied by two.
-     * | current = current * 2
-     */
-    private long nextID() {
-        current *= 2;
-        return current;
-    }
-
-    /**
-     * Checks if a next ID can be generated.
+     * Calculates the sum of the row with the given index.
      *
-     * @return False if the next id would overflow the long variable it is contained in.
-     * This is done by checking if the next calculated id is negative, as over-
-     * flowing a long in java causes it to flip the sign bit.
-     * | return rowSum(calculateNextRow()) &gt;= 0
+     * @return Two to the power of the index.
+     * | return 2^index
      */
-    public boolean hasNextID() {
-        return current * 2 > 0;
+    @Override
+    protected long termAt(long index) {
+        return 1L << index;
     }
 }
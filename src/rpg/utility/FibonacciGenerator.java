@@ -10,102 +10,93 @@ package rpg.utility;
  * $$F_1 = F_2 = 1$$
  *
  * @author Elias Storme
- * @version 1.1
+ * @version 2.0
  */
-public class FibonacciGenerator implements IDGenerator {
+public class FibonacciGenerator extends SequenceIDGenerator {
 
     /*****************************
-     * Constructor
+     * Constants
      *****************************/
 
     /**
-     * Creates a new Fibonacci generator instance.
-     * @effect Uses the reset method to initialise both state variables.
-     * | reset()
+     * The Fibonacci numbers that fit a long, F_n stored at index n - 1.
      */
-    public FibonacciGenerator() {
-        reset();
-    }
-
-    /*****************************
-     * Interface method
-     *****************************/
+    private static final long[] FIBONACCI = calculateFibonacci();
 
     /**
-     * Generates and returns a number from Fibonacci's sequence.
-     * @return A number from Fibonacci's sequence.
-     * @effect If the generator cannot generate another sequential number, resets
-     *         the generator to it's initial state.
-     *       | if(!hasNextID()) reset()
-     * @effect Advances the generator one step.
-     *       | nextID()
+     * Calculates all Fibonacci numbers that fit a long.
      */
-    @Override
-    public long generateID() {
-        if (!hasNextID()) {
-            reset();
+    private static long[] calculateFibonacci() {
+        long[] numbers = new long[92];
+        numbers[0] = 1;
+        numbers[1] = 1;
+        for (int i = 2; i < numbers.length; i++) {
+            numbers[i] = numbers[i - 1] + numbers[i - 2];
         }
-        return nextID();
+        return numbers;
     }
 
     /*****************************
-     * Calculation
+     * Constructor
      *****************************/
 
     /**
-     * Calculates the next sequential Fibonacci number from the two
-     * previous ones.
-     * @return The next Fibonacci number.
-     * @effect secondNumber is assigned the value of the sum of itself
-     * and firstNumber.
-     * @effect The number firstNumber is assigned the value of secondNumber.
+     * Creates a new Fibonacci generator instance.
+     * @effect The generator starts at the first Fibonacci number.
+     * | this(IDPartition.SINGLE)
      */
-    public long nextID() {
-        long nextFirst = 0;
-        long nextSecond = 0;
-        if(secondNumber == 0){
-            nextSecond = 1;
-        } else {
-            nextFirst = secondNumber;
-            nextSecond = firstNumber + secondNumber;
-        }
-        firstNumber = nextFirst;
-        secondNumber = nextSecond;
-        return nextSecond;
+    public FibonacciGenerator() {
+        this(IDPartition.SINGLE);
     }
 
     /**
-     * Checks if a next ID can be generated.
+     * Creates a new Fibonacci generator that only generates the Fibonacci numbers of
+     * the given partition.
      *
-     * @return False if the next id would overflow the long variable it is contained in.
-     * This is done by checking if the next calculated id is negative, as over-
-     * flowing a long in java causes it to flip the sign bit.
-     * | return (firstNumber + secondNumber) >= 0
+     * @param partition
+     *        Partition of the Fibonacci numbers this generator generates.
+     * @effect | super(FIBONACCI.length - getNbOfSkippedTerms(partition), partition)
+     * @note F_1 and F_2 are both 1, so when the numbers are spread over several nodes
+     * the sequence starts at F_2 to keep the numbers of different nodes disjoint.
      */
-    public boolean hasNextID() {
-        return (firstNumber + secondNumber) >= 0;
+    public FibonacciGenerator(IDPartition partition) {
+        super(FIBONACCI.length - getNbOfSkippedTerms(partition), partition);
+        this.nbOfSkippedTerms = getNbOfSkippedTerms(partition);
     }
 
+    /**
+     * Returns the number of leading Fibonacci numbers skipped for the given partition.
+     *
+     * @return | return partition.getNodeCount() &gt; 1 ? 1 : 0
+     */
+    private static int getNbOfSkippedTerms(IDPartition partition) {
+        return partition != null && partition.getNodeCount() > 1 ? 1 : 0;
+    }
+
+    /**
+     * Number of leading Fibonacci numbers this generator skips.
+     */
+    private final int nbOfSkippedTerms;
+
     /*****************************
-     * State variables and mutator
+     * Calculation
      *****************************/
 
     /**
-     * Resets the generator.
-     * @effect Reinitialises both state variables to their default values of zero.
-     * | firstNumber = 0
-     * | secondNumber = 0
+     * Looks up the Fibonacci number with the given index.
+     * @return | return F_(index + nbOfSkippedTerms)
      */
-    public void reset() {
-        firstNumber = 0;
-        secondNumber = 0;
+    @Override
+    protected long termAt(long index) {
+        return FIBONACCI[(int) index - 1 + nbOfSkippedTerms];
     }
 
     /**
-     * State variables for the generator.
-     * They represent two sequential numbers in Fibonacci's sequence.
+     * Calculates the next sequential Fibonacci number, advances the generator.
+     * @return | return generateID()
      */
-    private long firstNumber;
-    private long secondNumber;
+    public long nextID() {
+        return generateID();
+    }
 
 }
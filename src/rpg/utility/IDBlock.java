@@ -0,0 +1,94 @@
+package rpg.utility;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A block of consecutive IDs leased from a sequence generator.
+ *
+ * @invar The IDs generated are those of the leased steps, in order.
+ * | 0 &lt;= getNbOfRemainingIDs() &lt;= size
+ *
+ * @note A block is not safe for use by several threads at once. It is meant to be
+ * owned by the thread that leased it, which generates its IDs without any
+ * synchronisation.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+public class IDBlock implements IDGenerator {
+
+    /*****************************
+     * Constructor
+     *****************************/
+
+    /**
+     * Creates a new block of the given steps of the given generator.
+     *
+     * @param generator
+     *        Generator the steps were leased from.
+     * @param first
+     *        First leased step.
+     * @param size
+     *        Number of leased steps.
+     */
+    IDBlock(SequenceIDGenerator generator, long first, int size) {
+        this.generator = generator;
+        this.next = first;
+        this.end = first + size;
+    }
+
+    /**
+     * Generator the steps were leased from.
+     */
+    private final SequenceIDGenerator generator;
+
+    /*****************************
+     * Interface method
+     *****************************/
+
+    /**
+     * Generates the next ID of this block.
+     *
+     * @return The ID of the next leased step.
+     * @throws NoSuchElementException
+     *         If all IDs of this block have been generated.
+     *       | !hasNextID()
+     */
+    @Override
+    public long generateID() throws NoSuchElementException {
+        if (!hasNextID()) {
+            throw new NoSuchElementException("No more IDs in this block!");
+        }
+        return generator.idAt(next++);
+    }
+
+    /*****************************
+     * Remaining steps
+     *****************************/
+
+    /**
+     * Checks if this block has an ID left.
+     *
+     * @return | return getNbOfRemainingIDs() &gt; 0
+     */
+    public boolean hasNextID() {
+        return next != end;
+    }
+
+    /**
+     * Returns the number of IDs left in this block.
+     */
+    public int getNbOfRemainingIDs() {
+        return (int) (end - next);
+    }
+
+    /**
+     * Next leased step.
+     */
+    private long next;
+
+    /**
+     * Step after the last leased step.
+     */
+    private final long end;
+}
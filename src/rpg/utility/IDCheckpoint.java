@@ -0,0 +1,254 @@
+package rpg.utility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A file recording how many steps of a sequence generator may have been handed out,
+ * so a generator restarted from it never generates an ID of a previous run again.
+ *
+ * @invar The recorded mark never decreases.
+ *
+ * @note The file holds two slots of 32 bytes, little endian: a magic number, the node
+ * index and node count of the partition, the mark and a CRC32 checksum of the fields
+ * before it. Writes alternate between the slots and are forced to the storage device
+ * before the mark is used, so a write torn by a crash leaves the other slot intact.
+ * Reading takes the valid slot with the highest mark. The file is locked while it is
+ * open, so two generators never record marks in the same file.
+ * A checkpoint only guarantees unique IDs for a sequence that does not restart: the
+ * sequences of backpacks and purses restart after 62 and 92 terms, so their IDs repeat
+ * with or without a checkpoint.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+public final class IDCheckpoint implements Closeable {
+
+    /*****************************
+     * Constants
+     *****************************/
+
+    /**
+     * Default number of steps reserved with every write of the checkpoint.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 10000;
+
+    /**
+     * Name of the system property holding the directory the checkpoints of the item
+     * ID generators are kept in.
+     */
+    public static final String DIRECTORY_PROPERTY = "rpg.id.checkpoint.dir";
+
+    /**
+     * Magic number identifying a slot of a checkpoint file, "RPGIDCHK" in ASCII.
+     */
+    private static final long MAGIC = 0x525047494443484BL;
+
+    /**
+     * Size of a slot in bytes.
+     */
+    private static final int SLOT_SIZE = 32;
+
+    /*****************************
+     * Constructors
+     *****************************/
+
+    /**
+     * Creates a new checkpoint writing to the given channel.
+     */
+    private IDCheckpoint(Path file, FileChannel channel, IDPartition partition, long mark, int nextSlot) {
+        this.file = file;
+        this.channel = channel;
+        this.partition = partition;
+        this.mark = mark;
+        this.nextSlot = nextSlot;
+    }
+
+    /**
+     * Opens the checkpoint in the given file, creating the file if it does not exist.
+     *
+     * @param file
+     *        File holding the checkpoint.
+     * @param partition
+     *        Partition of the generator the checkpoint belongs to.
+     * @return A checkpoint whose mark is the highest mark recorded in the file, or zero
+     *         if the file is new.
+     * @throws IOException
+     *         If the file cannot be read, holds no valid slot although it is not empty,
+     *         was written for another partition or is locked by another checkpoint.
+     */
+    static IDCheckpoint open(Path file, IDPartition partition) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // the lock is released when the channel is closed
+            if (!tryLock(channel)) {
+                throw new IOException("ID checkpoint is already open: " + file);
+            }
+            long mark = -1;
+            int nextSlot = 0;
+            for (int slot = 0; slot < 2; slot++) {
+                long slotMark = readSlot(channel, slot, partition, file);
+                if (slotMark > mark) {
+                    mark = slotMark;
+                    nextSlot = 1 - slot;
+                }
+            }
+            if (mark < 0) {
+                if (channel.size() > 0) {
+                    throw new IOException("File does not hold a valid ID checkpoint: " + file);
+                }
+                mark = 0;
+            }
+            return new IDCheckpoint(file, channel, partition, mark, nextSlot);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Tries to lock the whole file of the given channel.
+     *
+     * @return True if the lock has been taken, false if another process or a channel
+     *         of this process holds a lock on the file.
+     */
+    private static boolean tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock() != null;
+        } catch (OverlappingFileLockException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the mark in the given slot of the given channel.
+     *
+     * @return The mark in the slot, -1 if the slot is missing or damaged.
+     * @throws IOException
+     *         If the slot is valid, but was written for another partition.
+     */
+    private static long readSlot(FileChannel channel, int slot, IDPartition partition, Path file)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, (long) slot * SLOT_SIZE + buffer.position()) < 0) return -1;
+        }
+        buffer.flip();
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.array(), 0, SLOT_SIZE - 8);
+        long magic = buffer.getLong();
+        int nodeIndex = buffer.getInt();
+        int nodeCount = buffer.getInt();
+        long mark = buffer.getLong();
+        if (magic != MAGIC || buffer.getLong() != checksum.getValue() || mark < 0) return -1;
+        if (nodeIndex != partition.getNodeIndex() || nodeCount != partition.getNodeCount()) {
+            throw new IOException("ID checkpoint was written for node " + nodeIndex + " of "
+                    + nodeCount + ", not for " + partition + ": " + file);
+        }
+        return mark;
+    }
+
+    /**
+     * Opens a checkpoint for the given generator in the directory given by the system
+     * properties, if any, and attaches it to the generator.
+     *
+     * @param generator
+     *        Generator to attach the checkpoint to.
+     * @param name
+     *        Name of the checkpoint file, without extension.
+     * @return The given generator.
+     * @effect If the directory property is set, the generator is checkpointed to the
+     *         file with the given name in that directory.
+     *       | if System.getProperty(DIRECTORY_PROPERTY) != null
+     *       |    generator.checkpointTo(directory.resolve(name + ".ids"))
+     * @throws UncheckedIOException
+     *         If the checkpoint cannot be opened.
+     */
+    public static <G extends SequenceIDGenerator> G fromSystemProperties(G generator, String name) {
+        String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null) return generator;
+        try {
+            generator.checkpointTo(Paths.get(directory).resolve(name + ".ids"), DEFAULT_BATCH_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return generator;
+    }
+
+    /*****************************
+     * Mark
+     *****************************/
+
+    /**
+     * Returns the highest mark recorded, every step at or above it is still unused.
+     */
+    public long getMark() {
+        return mark;
+    }
+
+    /**
+     * Records the given mark and forces it to the storage device.
+     *
+     * @param mark
+     *        Number of steps that may be handed out from now on.
+     * @post | getMark() == max(old.getMark(), mark)
+     * @throws IOException
+     *         If the mark cannot be written, the recorded mark is unchanged then.
+     */
+    synchronized void record(long mark) throws IOException {
+        if (mark <= this.mark) return;
+        ByteBuffer buffer = ByteBuffer.allocate(SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(MAGIC).putInt(partition.getNodeIndex()).putInt(partition.getNodeCount()).putLong(mark);
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.array(), 0, SLOT_SIZE - 8);
+        buffer.putLong(checksum.getValue());
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, (long) nextSlot * SLOT_SIZE + buffer.position());
+        }
+        channel.force(true);
+        this.mark = mark;
+        nextSlot = 1 - nextSlot;
+    }
+
+    /**
+     * Returns the file holding this checkpoint.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Closes the file holding this checkpoint, releasing its lock.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private final Path file;
+
+    private final FileChannel channel;
+
+    private final IDPartition partition;
+
+    /**
+     * Highest mark recorded.
+     */
+    private long mark;
+
+    /**
+     * Slot the next mark is written to.
+     */
+    private int nextSlot;
+}
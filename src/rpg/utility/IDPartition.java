@@ -0,0 +1,158 @@
+package rpg.utility;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * A class of partitions of the terms of an ID sequence over a number of nodes.
+ *
+ * @invar The node count is strictly positive and the node index lies below it.
+ * | 0 &lt;= getNodeIndex() &lt; getNodeCount()
+ *
+ * @note A node only generates the terms whose index, counted from zero, is congruent
+ * to its node index modulo the node count. Nodes configured with the same count and
+ * different indices therefore never generate the same term, without any coordination
+ * between them.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+@Value
+public final class IDPartition {
+
+    /*****************************
+     * Constants
+     *****************************/
+
+    /**
+     * Partition of a single node generating every term.
+     */
+    public static final IDPartition SINGLE = new IDPartition(0, 1);
+
+    /**
+     * Name of the system property holding the index of this node.
+     */
+    public static final String NODE_INDEX_PROPERTY = "rpg.node.index";
+
+    /**
+     * Name of the system property holding the number of nodes.
+     */
+    public static final String NODE_COUNT_PROPERTY = "rpg.node.count";
+
+    /*****************************
+     * Constructors
+     *****************************/
+
+    /**
+     * Creates a new partition for the node with the given index out of the given
+     * number of nodes.
+     *
+     * @param nodeIndex Index of the node, counted from zero.
+     * @param nodeCount Number of nodes generating IDs.
+     * @throws IllegalArgumentException
+     *         If the node count is not strictly positive or the node index does not
+     *         lie between zero and the node count.
+     */
+    public IDPartition(int nodeIndex, int nodeCount) {
+        if (nodeCount <= 0 || nodeIndex < 0 || nodeIndex >= nodeCount) {
+            throw new IllegalArgumentException("Node " + nodeIndex + " of " + nodeCount + " is not allowed!");
+        }
+        this.nodeIndex = nodeIndex;
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * Reads the partition of this process from the system properties.
+     *
+     * @return The partition given by the node index and node count properties, or the
+     *         single node partition if the node count property is not set.
+     * @throws IllegalArgumentException
+     *         If the properties do not describe a valid partition.
+     */
+    public static IDPartition fromSystemProperties() {
+        String count = System.getProperty(NODE_COUNT_PROPERTY);
+        if (count == null) return SINGLE;
+        try {
+            return new IDPartition(
+                    Integer.parseInt(System.getProperty(NODE_INDEX_PROPERTY, "0").trim()),
+                    Integer.parseInt(count.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Node properties are not numbers!", e);
+        }
+    }
+
+    /*****************************
+     * Node
+     *****************************/
+
+    /**
+     * Returns the index of the node, counted from zero.
+     */
+    @Basic
+    @Immutable
+    public int getNodeIndex() {
+        return nodeIndex;
+    }
+
+    /**
+     * Returns the number of nodes generating IDs.
+     */
+    @Basic
+    @Immutable
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    private final int nodeIndex;
+
+    private final int nodeCount;
+
+    /*****************************
+     * Terms
+     *****************************/
+
+    /**
+     * Calculates how many of the given number of terms belong to this partition.
+     *
+     * @param nbOfTerms Number of terms of the sequence.
+     * @return | return ceil((nbOfTerms - getNodeIndex()) / getNodeCount())
+     */
+    public long getNbOfTermsOf(long nbOfTerms) {
+        if (nbOfTerms <= nodeIndex) return 0;
+        return (nbOfTerms - nodeIndex - 1) / nodeCount + 1;
+    }
+
+    /**
+     * Calculates the index in the whole sequence of the term with the given index
+     * within this partition.
+     *
+     * @param index Index of the term within this partition, counted from zero.
+     * @return | return index * getNodeCount() + getNodeIndex()
+     */
+    public long termIndexOf(long index) {
+        return index * nodeCount + nodeIndex;
+    }
+
+    /*****************************
+     * Value methods
+     *****************************/
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof IDPartition)) return false;
+        IDPartition that = (IDPartition) other;
+        return nodeIndex == that.nodeIndex && nodeCount == that.nodeCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * nodeIndex + nodeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "IDPartition(node " + nodeIndex + " of " + nodeCount + ")";
+    }
+}
@@ -1,34 +1,181 @@
 package rpg.utility;
 
-import java.util.TreeSet;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
 
 /**
- * An implementation of the IDGenerator interface that generates primes.
+ * A utility answering questions about primes, backed by a sieve of Eratosthenes.
  *
- * @invar Every number generated shall only have one and itself as its
- * positive integer divisors.
+ * @invar Every odd number below the sieved limit is marked composite if and only
+ * if it has a positive integer divisor other than one and itself.
+ * | for each odd n in [1, getSievedLimit()):
+ * |    isComposite(n) == (n == 1 || exists d in [3, n): n mod d == 0)
+ *
+ * @note Only odd numbers are stored, one bit each in an array of longs, so the
+ * table for all hitpoints up to a million takes about 62 kB. The sieve grows
+ * by segments: numbers above the sieved limit are crossed off with the primes
+ * already known, the numbers below the limit are never sieved again.
+ *
+ * @note A utility can be shared by several threads. The sieve is published as an
+ * immutable table in a volatile field, so lookups never lock. Growing is done by
+ * one thread at a time, which sieves a copy of the table extended with the new
+ * segment and then publishes the copy.
+ *
+ * @note Below the lookup range the distance from every number to the next and
+ * the previous prime is stored, so closestPrime, nextPrime and previousPrime
+ * are array reads. The gaps between primes below 2^31 are at most a few hundred,
+ * so they are stored as chars: two bytes per number instead of four for an int.
+ *
+ * @note The sieve never grows past the sieve ceiling. Larger numbers are tested
+ * with a deterministic Miller-Rabin test, which is exact for every long with a
+ * fixed set of bases, so huge hitpoints do not need a huge table.
+ *
+ * @note A sieve can be written to a file once and mapped read-only by every
+ * process that needs it, so the operating system keeps a single copy in its page
+ * cache and nothing is sieved at startup. The limit of a mapped sieve is its
+ * ceiling, larger numbers go to Miller-Rabin.
  *
  * @author Elias Storme
- * @version 1.1
+ * @version 2.0
  */
 public class PrimeUtility {
 
+	/*****************************
+	 * Constants
+	 *****************************/
+
+	/**
+	 * Limit up to which a new utility sieves right away.
+	 */
+	private static final long INITIAL_LIMIT = 1L << 16;
+
+	/**
+	 * Limit the sieve never has to pass: every number up to the largest int is
+	 * then sieved.
+	 */
+	private static final long MAX_LIMIT = (long) Integer.MAX_VALUE + 1;
+
+	/**
+	 * Limit up to which the sieve grows by default, larger numbers are tested
+	 * with Miller-Rabin.
+	 */
+	public static final long DEFAULT_SIEVE_CEILING = 1L << 24;
+
+	/**
+	 * Bases for which a strong probable prime test is exact for every number
+	 * below 3 215 031 751, which covers every int.
+	 */
+	private static final long[] INT_BASES = {2, 3, 5, 7};
+
+	/**
+	 * Bases for which a strong probable prime test is exact for every long.
+	 */
+	private static final long[] LONG_BASES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37};
+
+	/**
+	 * Largest number whose square still fits in a long.
+	 */
+	private static final long MAX_SQUARABLE = 3037000499L;
+
+	/**
+	 * Range of numbers for which a new utility stores lookup tables by default.
+	 */
+	public static final int DEFAULT_LOOKUP_RANGE = 1 << 16;
+
+	/**
+	 * Name of the system property holding the sieve file the shared utility of the
+	 * game is mapped from.
+	 */
+	public static final String SIEVE_FILE_PROPERTY = "rpg.prime.sieve";
+
+	/**
+	 * First eight bytes of a sieve file, "RPGPRIME" in ASCII.
+	 */
+	private static final long FILE_MAGIC = 0x5250475052494D45L;
+
+	/**
+	 * Version of the sieve file format.
+	 */
+	private static final int FILE_VERSION = 1;
+
+	/**
+	 * Size of the header of a sieve file: magic, version, unused, limit and checksum.
+	 */
+	private static final int FILE_HEADER_SIZE = 32;
+
 	/*****************************
 	 * Constructor
 	 *****************************/
 
 	/**
-	 * Creates a new PrimeUtility.
+	 * Creates a new PrimeUtility with lookup tables for the given range.
+	 *
+	 * @param lookupRange
+	 *        Numbers below this range are looked up in tables.
+	 * @effect The numbers below the initial limit and the lookup range are sieved.
+	 * | sieveUpTo(max(INITIAL_LIMIT, lookupRange + 1))
+	 * @post If the lookup range is negative, zero is used.
+	 * | getLookupRange() == max(0, lookupRange)
+	 * @post The sieve ceiling is the default ceiling, or higher if the lookup range
+	 * needs it.
+	 * | getSieveCeiling() == min(max(DEFAULT_SIEVE_CEILING, getLookupRange() + 1), 2^31)
+	 * @post For every number in the lookup range the gaps to the next and previous
+	 * prime are stored.
+	 */
+	public PrimeUtility(int lookupRange){
+		this(lookupRange, Math.min(Math.max(DEFAULT_SIEVE_CEILING, Math.max(0, lookupRange) + 1L), MAX_LIMIT), null);
+	}
+
+	/**
+	 * Creates a new PrimeUtility with lookup tables for the default range.
 	 *
-	 * @effect Uses the reset method to initialise the position
-     * state variable to it's initial state.
-	 * | reset()
-     * @effect Adds 2 to the ArrayList in order to have a reference
-     * to calculates other primes off.
+	 * @effect | this(DEFAULT_LOOKUP_RANGE)
 	 */
 	public PrimeUtility(){
-		primeSet = new TreeSet<>();
-		primeSet.add(2);
+		this(DEFAULT_LOOKUP_RANGE);
+	}
+
+	/**
+	 * Creates a new PrimeUtility starting from the given table.
+	 *
+	 * @param lookupRange
+	 *        Numbers below this range are looked up in tables.
+	 * @param sieveCeiling
+	 *        Limit the sieve never grows past.
+	 * @param initial
+	 *        Table to start from, null to sieve from scratch.
+	 */
+	private PrimeUtility(int lookupRange, long sieveCeiling, Table initial){
+		this.lookupRange = Math.max(0, lookupRange);
+		this.sieveCeiling = sieveCeiling;
+		if (initial != null) table = initial;
+		sieveUpTo(Math.max(INITIAL_LIMIT, this.lookupRange + 1L));
+		nextGaps = new char[this.lookupRange];
+		previousGaps = new char[this.lookupRange];
+		if (this.lookupRange > 0) {
+			int next = scanNextPrime(this.lookupRange - 1);
+			for (int number = this.lookupRange - 1; number >= 0; number--) {
+				if (isPrime(number)) next = number;
+				nextGaps[number] = (char) (next - number);
+			}
+			int previous = -1;
+			for (int number = 0; number < this.lookupRange; number++) {
+				if (isPrime(number)) previous = number;
+				// numbers below 2 have no previous prime, their gap is left at zero
+				if (previous >= 0) previousGaps[number] = (char) (number - previous);
+			}
+		}
 	}
 
 	/*****************************
@@ -36,68 +183,496 @@ public class PrimeUtility {
 	 *****************************/
 
 	/**
-	 * Sorted set storing all the primes this utility has generated.
-     * Set is sorted according to natural order.
-	 */
-    private TreeSet<Integer> primeSet;
-
-    /*****************************
-     * Calculation
-     *****************************/
-	
-	/**
-	 * Generates the smallest prime larger than all primes in the given array.
-	 * @param previousPrimes
-	 * 			TreeSet with previous primes.
-	 * @pre previousPrimes has to be a complete list of primes.
-	 * @return The next prime, larger than all ones in the given array.
-     * | let p:
-     * |    for each q in previousPrimes:
-     * |        p > q
-     * |        p mod q != 0
-     * | then:
-     * |    return p
-	 */
-	private int generateNextPrime(TreeSet<Integer> previousPrimes){
-		int current = previousPrimes.last();
-		SEARCH:
-		while(true){
-			current++;
-			for(int p : previousPrimes){
-				if (current % p == 0) continue SEARCH;
-			}
-			return current;
+	 * A sieved table, never modified after it has been published.
+	 */
+	private static final class Table {
+
+		Table(LongBuffer composites, long limit) {
+			this.composites = composites;
+			this.limit = limit;
+		}
+
+		/**
+		 * Bitset of the odd numbers below the limit. Bit i stands for the
+		 * number 2i+1 and is set if that number is composite. Either wraps an
+		 * array or is mapped from a file, it is only read with absolute gets.
+		 */
+		final LongBuffer composites;
+
+		/**
+		 * Every number below this limit has been sieved.
+		 */
+		final long limit;
+
+		/**
+		 * Checks whether the given odd number is marked composite.
+		 * @pre | number % 2 == 1 && number < limit
+		 */
+		boolean isComposite(long number) {
+			long bit = number >>> 1;
+			return (composites.get((int) (bit >>> 6)) & (1L << bit)) != 0;
 		}
 	}
 
-    /**
-     * Checks if the given number is a prime.
-     * @param number
-     *        The long to be checked.
-     * @effect If the largest prime in the primeList is smaller
-     * than the given number, generate numbers until the largest is
-     * larger or equal to the given number.
-     * | while(
-     * @return Whether number exists in the list of primes.
-     * | return primeList.contains(number)
-     */
+	/**
+	 * The table currently published.
+	 */
+	private volatile Table table = new Table(LongBuffer.wrap(new long[0]), 0);
+
+	/**
+	 * Returns the limit the sieve never grows past.
+	 */
+	public long getSieveCeiling() {
+		return sieveCeiling;
+	}
+
+	/**
+	 * Limit the sieve never grows past.
+	 */
+	private final long sieveCeiling;
+
+	/**
+	 * Lock held by the thread growing the sieve.
+	 */
+	private final Object growLock = new Object();
+
+	/**
+	 * Returns the limit below which every number has been sieved.
+	 */
+	public long getSievedLimit() {
+		return table.limit;
+	}
+
+	/*****************************
+	 * Lookup tables
+	 *****************************/
+
+	/**
+	 * Returns the range of numbers that are looked up in tables.
+	 */
+	public int getLookupRange() {
+		return lookupRange;
+	}
+
+	/**
+	 * Numbers below this range are looked up in tables.
+	 */
+	private final int lookupRange;
+
+	/**
+	 * Distance from each number in the lookup range to the smallest prime larger
+	 * than or equal to it.
+	 */
+	private final char[] nextGaps;
+
+	/**
+	 * Distance from each number in the lookup range to the largest prime smaller
+	 * than or equal to it, zero for numbers below 2.
+	 */
+	private final char[] previousGaps;
+
+	/*****************************
+	 * Calculation
+	 *****************************/
+
+	/**
+	 * Checks if the given number is a prime.
+	 * @param number
+	 *        The int to be checked.
+	 * @effect If the number is below the sieve ceiling and has not been sieved yet,
+	 * the sieve is grown to include it.
+	 * | if (number >= getSievedLimit() && number < getSieveCeiling()) sieveUpTo(number + 1)
+	 * @return Whether the number is larger than one and only has one and itself
+	 * as its positive integer divisors.
+	 */
 	public boolean isPrime(int number){
-		while(number > primeSet.last()){
-		    primeSet.add(generateNextPrime(primeSet));
-        }
-        return primeSet.contains(number);
+		if (number < 2) return false;
+		if (number % 2 == 0) return number == 2;
+		if (number >= sieveCeiling) return passesMillerRabin(number, INT_BASES);
+		return !tableFor(number).isComposite(number);
 	}
-	
+
+	/**
+	 * Checks if the given long is a prime.
+	 * @param number
+	 *        The long to be checked.
+	 * @return | if (number <= Integer.MAX_VALUE) return isPrime((int) number)
+	 * @return Whether the number only has one and itself as its positive integer
+	 * divisors, decided by a deterministic Miller-Rabin test.
+	 */
+	public boolean isPrime(long number){
+		if (number < 2) return false;
+		if (number <= Integer.MAX_VALUE) return isPrime((int) number);
+		if (number % 2 == 0) return false;
+		return passesMillerRabin(number, LONG_BASES);
+	}
+
+	/**
+	 * Returns the smallest prime larger than or equal to the given number.
+	 * @param number
+	 *        The number to start from.
+	 * @return | result >= number && isPrime(result) &&
+	 *         | for each p in [number, result): !isPrime(p)
+	 * @note The largest int, 2^31 - 1, is a prime, so the result always fits.
+	 */
+	public int nextPrime(int number){
+		if (number <= 2) return 2;
+		if (number < lookupRange) return number + nextGaps[number];
+		return scanNextPrime(number);
+	}
+
+	/**
+	 * Returns the smallest prime larger than or equal to the given number by
+	 * scanning the sieve.
+	 * @param number
+	 *        The number to start from.
+	 * @return | result == nextPrime(number)
+	 */
+	private int scanNextPrime(int number){
+		if (number <= 2) return 2;
+		int candidate = number | 1;
+		while (!isPrime(candidate)) {
+			candidate += 2;
+		}
+		return candidate;
+	}
+
+	/**
+	 * Returns the largest prime smaller than or equal to the given number.
+	 * @param number
+	 *        The number to start from.
+	 * @return | result <= number && isPrime(result) &&
+	 *         | for each p in (result, number]: !isPrime(p)
+	 * @throws IllegalArgumentException
+	 *         There is no prime smaller than 2.
+	 *       | number < 2
+	 */
+	public int previousPrime(int number) throws IllegalArgumentException {
+		if (number < 2) throw new IllegalArgumentException("There is no prime smaller than 2!");
+		if (number < lookupRange) return number - previousGaps[number];
+		if (number == 2) return 2;
+		int candidate = (number % 2 == 0) ? number - 1 : number;
+		while (candidate >= sieveCeiling && !isPrime(candidate)) {
+			candidate -= 2;
+		}
+		if (candidate >= sieveCeiling) return candidate;
+		Table sieved = tableFor(candidate);
+		while (candidate > 2 && sieved.isComposite(candidate)) {
+			candidate -= 2;
+		}
+		return candidate;
+	}
+
+	/**
+	 * Returns the prime closest to the given number.
+	 * @param number
+	 *        The number to start from.
+	 * @return The number itself if it is a prime.
+	 * | if isPrime(number) return number
+	 * @return The closest prime otherwise, the smaller one if two primes are
+	 * equally close.
+	 * | let ceiling = nextPrime(number), floor = previousPrime(number)
+	 * | return (number - floor) > (ceiling - number) ? ceiling : floor
+	 * @return 2 if the number is smaller than 2.
+	 */
 	public int closestPrime(int number){
-		if(isPrime(number)) return number;
-		else{
-			int ceiling = primeSet.ceiling(number);
-			int floor = primeSet.floor(number);
-			if((number - floor) > (ceiling - number)){
-			    return ceiling;
-            } else {
-			    return floor;
-            }
+		if (number <= 2) return 2;
+		if (number < lookupRange) {
+			int below = previousGaps[number];
+			int above = nextGaps[number];
+			return below > above ? number + above : number - below;
+		}
+		if (isPrime(number)) return number;
+		int ceiling = nextPrime(number);
+		int floor = previousPrime(number);
+		if ((long) number - floor > (long) ceiling - number) {
+			return ceiling;
+		} else {
+			return floor;
+		}
+	}
+
+	/*****************************
+	 * Sieve
+	 *****************************/
+
+	/**
+	 * Returns a table in which the given number has been sieved.
+	 * @param number
+	 *        The number to look up.
+	 * @effect If the published table does not include the number, the sieve is
+	 * grown to include it.
+	 * | if (number >= getSievedLimit()) sieveUpTo(number + 1)
+	 */
+	private Table tableFor(long number) {
+		Table current = table;
+		if (number < current.limit) return current;
+		return sieveUpTo(number + 1);
+	}
+
+	/**
+	 * Grows the sieve until every number below the given limit has been sieved.
+	 * @param limit
+	 *        The new limit.
+	 * @return The table published after growing.
+	 * @post | getSievedLimit() >= min(limit, getSieveCeiling())
+	 * @note The limit is at least doubled each time, so sieving a long series of
+	 * increasing numbers costs amortised constant time per number. Each segment
+	 * ends below the square of the previous limit, so every prime needed to
+	 * cross off the segment is already known.
+	 */
+	private Table sieveUpTo(long limit) {
+		limit = Math.min(limit, sieveCeiling);
+		synchronized (growLock) {
+			// another thread may have grown the sieve while this one was waiting
+			Table current = table;
+			if (limit <= current.limit) return current;
+			long from = current.limit;
+			long to = from == 0 ? Math.max(limit, INITIAL_LIMIT) : Math.min(Math.max(limit, from * 2), sieveCeiling);
+			table = new Table(LongBuffer.wrap(extend(current.composites, from, to)), to);
+			return table;
+		}
+	}
+
+	/**
+	 * Returns a copy of the given bitset extended with the odd numbers in the given
+	 * range, with the composite ones crossed off.
+	 * @param composites
+	 *        Bitset in which every number below the start has been sieved.
+	 * @param from
+	 *        Start of the range.
+	 * @param to
+	 *        End of the range, exclusive.
+	 */
+	private static long[] extend(LongBuffer composites, long from, long to) {
+		int nbOfWords = (int) (((to >>> 1) + 63) >>> 6);
+		long[] extended = new long[nbOfWords];
+		LongBuffer known = composites.duplicate();
+		known.rewind();
+		known.get(extended, 0, Math.min(known.remaining(), nbOfWords));
+		while (from < to) {
+			long end = from == 0 ? to : Math.min(to, from * from);
+			sieveSegment(extended, from, end);
+			from = end;
+		}
+		return extended;
+	}
+
+	/**
+	 * Crosses off the odd composite numbers in the given range.
+	 * @param composites
+	 *        Bitset of the table being built.
+	 * @param from
+	 *        Start of the range, every number below it has been sieved.
+	 * @param to
+	 *        End of the range, exclusive.
+	 * @pre Every prime below the square root of the end is known, or the range
+	 * starts at zero.
+	 * | from == 0 || to <= from * from
+	 */
+	private static void sieveSegment(long[] composites, long from, long to) {
+		if (from == 0) {
+			// one is not a prime
+			composites[0] |= 1L;
+		}
+		for (long p = 3; p * p < to; p += 2) {
+			long bit = p >>> 1;
+			if ((composites[(int) (bit >>> 6)] & (1L << bit)) != 0) continue;
+			long start = Math.max(p * p, (from + p - 1) / p * p);
+			if (start % 2 == 0) start += p;
+			for (long multiple = start; multiple < to; multiple += 2 * p) {
+				bit = multiple >>> 1;
+				composites[(int) (bit >>> 6)] |= 1L << bit;
+			}
+		}
+	}
+
+	/*****************************
+	 * Miller-Rabin
+	 *****************************/
+
+	/**
+	 * Checks whether the given odd number is a strong probable prime to all the
+	 * given bases.
+	 * @param number
+	 *        The number to be checked, odd and larger than 2.
+	 * @param bases
+	 *        Bases for which the test is exact in the range of the number.
+	 * @return Whether the number is a prime.
+	 */
+	private static boolean passesMillerRabin(long number, long[] bases) {
+		for (long base : bases) {
+			if (number == base) return true;
+			if (number % base == 0) return false;
+		}
+		// number - 1 = d * 2^s with d odd
+		int s = Long.numberOfTrailingZeros(number - 1);
+		long d = (number - 1) >>> s;
+		WITNESS:
+		for (long base : bases) {
+			long x = powMod(base, d, number);
+			if (x == 1 || x == number - 1) continue;
+			for (int r = 1; r < s; r++) {
+				x = mulMod(x, x, number);
+				if (x == number - 1) continue WITNESS;
+			}
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns base^exponent mod modulus.
+	 * @pre | 0 <= base < modulus && exponent >= 0
+	 */
+	private static long powMod(long base, long exponent, long modulus) {
+		long result = 1;
+		while (exponent > 0) {
+			if ((exponent & 1) == 1) result = mulMod(result, base, modulus);
+			base = mulMod(base, base, modulus);
+			exponent >>>= 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a * b mod modulus without overflowing.
+	 * @pre | 0 <= a < modulus && 0 <= b < modulus
+	 * @note Below the square root of the largest long the product is computed
+	 * directly, larger moduli double and add one bit at a time.
+	 */
+	private static long mulMod(long a, long b, long modulus) {
+		if (modulus <= MAX_SQUARABLE) return a * b % modulus;
+		long result = 0;
+		while (b > 0) {
+			if ((b & 1) == 1) result = addMod(result, a, modulus);
+			a = addMod(a, a, modulus);
+			b >>>= 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a + b mod modulus without overflowing.
+	 * @pre | 0 <= a < modulus && 0 <= b < modulus
+	 */
+	private static long addMod(long a, long b, long modulus) {
+		return a >= modulus - b ? a - (modulus - b) : a + b;
+	}
+
+	/*****************************
+	 * Persistence
+	 *****************************/
+
+	/**
+	 * Writes the sieve of all numbers below the given limit to the given file.
+	 * @param file
+	 *        File to write to, replaced if it exists.
+	 * @param limit
+	 *        Every number below this limit is sieved.
+	 * @effect The file holds a header with the limit and a checksum, followed by
+	 * the bitset of the odd numbers below the limit in little endian order.
+	 * @throws IllegalArgumentException
+	 *         The limit must be at least 2, so the sieve holds at least one number,
+	 *         and at most 2^31.
+	 *       | limit < 2 || limit > 2^31
+	 * @throws IOException
+	 *         If the file cannot be written.
+	 * @note The sieve is written to a temporary file next to the given one, which
+	 * is moved in place once complete, so a process mapping the file never sees a
+	 * partly written sieve.
+	 */
+	public static void writeSieve(Path file, long limit) throws IOException, IllegalArgumentException {
+		if (limit < 2 || limit > MAX_LIMIT) {
+			throw new IllegalArgumentException("The limit of a sieve must be at least 2 and at most 2^31!");
+		}
+		long[] composites = extend(LongBuffer.wrap(new long[0]), 0, limit);
+		ByteBuffer data = ByteBuffer.allocate(composites.length * 8).order(ByteOrder.LITTLE_ENDIAN);
+		data.asLongBuffer().put(composites);
+		CRC32 checksum = new CRC32();
+		checksum.update(data.duplicate());
+		ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.putLong(FILE_MAGIC).putInt(FILE_VERSION).putInt(0).putLong(limit).putLong(checksum.getValue());
+		header.flip();
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			while (header.hasRemaining()) channel.write(header);
+			while (data.hasRemaining()) channel.write(data);
+			channel.force(true);
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Creates a new PrimeUtility backed by the sieve in the given file, mapped read-only.
+	 * @param file
+	 *        File written by writeSieve.
+	 * @param lookupRange
+	 *        Numbers below this range are looked up in tables.
+	 * @return A utility whose sieve ceiling and sieved limit are the limit of the file.
+	 * @throws IOException
+	 *         If the file cannot be read, or its header or checksum is not valid.
+	 */
+	public static PrimeUtility mapSieve(Path file, int lookupRange) throws IOException {
+		MappedByteBuffer mapped;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() < FILE_HEADER_SIZE) {
+				throw new IOException("File is too small to hold a sieve: " + file);
+			}
+			// the mapping stays valid after the channel is closed
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		mapped.order(ByteOrder.LITTLE_ENDIAN);
+		long magic = mapped.getLong(0);
+		int version = mapped.getInt(8);
+		long limit = mapped.getLong(16);
+		long expectedChecksum = mapped.getLong(24);
+		if (magic != FILE_MAGIC || version != FILE_VERSION) {
+			throw new IOException("File does not hold a sieve of a supported version: " + file);
+		}
+		if (limit <= 0 || limit > MAX_LIMIT
+				|| mapped.capacity() - FILE_HEADER_SIZE != (((limit >>> 1) + 63) >>> 6) * 8) {
+			throw new IOException("Size of the sieve does not match its limit: " + file);
+		}
+		mapped.position(FILE_HEADER_SIZE);
+		ByteBuffer data = mapped.slice().order(ByteOrder.LITTLE_ENDIAN);
+		CRC32 checksum = new CRC32();
+		checksum.update(data.duplicate());
+		if (checksum.getValue() != expectedChecksum) {
+			throw new IOException("Checksum of the sieve does not match: " + file);
+		}
+		return new PrimeUtility(lookupRange, limit, new Table(data.asLongBuffer(), limit));
+	}
+
+	/**
+	 * Creates a new PrimeUtility backed by the sieve in the given file, with lookup
+	 * tables for the default range.
+	 * @effect | mapSieve(file, DEFAULT_LOOKUP_RANGE)
+	 */
+	public static PrimeUtility mapSieve(Path file) throws IOException {
+		return mapSieve(file, DEFAULT_LOOKUP_RANGE);
+	}
+
+	/**
+	 * Creates a new PrimeUtility backed by the sieve file given by the system
+	 * properties, if any.
+	 * @return The utility mapped from the file in the sieve file property, or a new
+	 *         utility sieving on demand if that property is not set or the file cannot
+	 *         be mapped.
+	 *       | if System.getProperty(SIEVE_FILE_PROPERTY) != null
+	 *       |    return mapSieve(Paths.get(System.getProperty(SIEVE_FILE_PROPERTY)))
+	 *       | else return new PrimeUtility()
+	 * @note A mapped sieve only saves sieving, so a missing or damaged file is no reason
+	 * to fail: the utility used to validate hitpoints is created while loading Mobile.
+	 */
+	public static PrimeUtility fromSystemProperties() {
+		String file = System.getProperty(SIEVE_FILE_PROPERTY);
+		if (file == null) return new PrimeUtility();
+		try {
+			return mapSieve(Paths.get(file));
+		} catch (IOException | InvalidPathException e) {
+			return new PrimeUtility();
 		}
 	}
 }
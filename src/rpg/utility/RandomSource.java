@@ -0,0 +1,60 @@
+package rpg.utility;
+
+/**
+ * An interface for sources of pseudorandom numbers used in combat.
+ *
+ * @note A source is not required to be safe for use by several threads at once.
+ * A thread that needs its own source splits one off with split, so runs stay
+ * reproducible and threads never contend on a shared seed.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+public interface RandomSource {
+
+    /**
+     * Generates a pseudorandom integer between zero, inclusive, and the given bound,
+     * exclusive.
+     *
+     * @param bound
+     *        Upper bound, must be positive.
+     * @return | 0 <= result < bound
+     */
+    int nextInt(int bound);
+
+    /**
+     * Generates a pseudorandom float between zero, inclusive, and one, exclusive.
+     *
+     * @return | 0 <= result < 1
+     */
+    float nextFloat();
+
+    /**
+     * Creates a new source that can be handed to another thread.
+     *
+     * @return A source whose numbers are independent of the numbers of this one.
+     * If this source is seeded, the new source is determined by the state of this
+     * one, so splitting in the same order gives the same sources again.
+     */
+    RandomSource split();
+
+    /**
+     * Returns the source backed by the random generator of the calling thread.
+     *
+     * @return A source that is safe to share, but cannot be replayed.
+     */
+    static RandomSource threadLocal() {
+        return ThreadLocalRandomSource.INSTANCE;
+    }
+
+    /**
+     * Creates a new deterministic source from the given seed.
+     *
+     * @param seed
+     *        Seed of the source.
+     * @return A source that generates the same numbers for the same seed.
+     */
+    static RandomSource seeded(long seed) {
+        return new SplittableRandomSource(seed);
+    }
+}
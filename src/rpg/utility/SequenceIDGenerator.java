@@ -0,0 +1,367 @@
+package rpg.utility;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An implementation of the IDGenerator interface that generates the terms of a
+ * sequence, restarting from the first term when the last one that fits a long
+ * has been generated.
+ *
+ * @invar The number of terms is strictly positive.
+ * | getNbOfTerms() &gt; 0
+ * @invar The partition of the generator holds at least one term.
+ * | getPartition().getNbOfTermsOf(getNbOfTerms()) &gt; 0
+ *
+ * @note All state is a single atomic counter of the number of IDs handed out, the
+ * ID for a step is calculated from the step alone. Generating an ID is one atomic
+ * increment, so a generator can be shared by any number of threads and no two calls
+ * get the same step. Threads generating many IDs can lease a block of steps at once
+ * and generate the IDs in it without touching the shared counter at all.
+ * A generator only generates the terms of its partition, so generators in different
+ * processes configured as different nodes of the same partitioning never generate
+ * the same ID. A generator with a checkpoint records in a file how many steps may have
+ * been handed out, reserving a batch of steps with every forced write, so a restarted
+ * process continues after the IDs of the previous run. Only the call that crosses the
+ * reserved steps takes a lock and writes, all others stay a single atomic increment.
+ * A sequence with few terms, like the powers of two or the Fibonacci numbers that fit
+ * a long, restarts from its first term within a single run, so a checkpoint cannot make
+ * its IDs unique across restarts.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+public abstract class SequenceIDGenerator implements IDGenerator {
+
+    /*****************************
+     * Constructor
+     *****************************/
+
+    /**
+     * Creates a new generator for the given partition of a sequence with the given
+     * number of terms.
+     *
+     * @param nbOfTerms
+     *        Number of terms of the sequence that fit a long.
+     * @param partition
+     *        Partition of the terms this generator generates.
+     * @throws IllegalArgumentException
+     *         If the partition is not effective or holds none of the terms.
+     *       | partition == null || partition.getNbOfTermsOf(nbOfTerms) == 0
+     */
+    protected SequenceIDGenerator(long nbOfTerms, IDPartition partition) {
+        if (partition == null) {
+            throw new IllegalArgumentException("Partition contains null reference!");
+        }
+        if (partition.getNbOfTermsOf(nbOfTerms) <= 0) {
+            throw new IllegalArgumentException("The sequence has no terms for " + partition + "!");
+        }
+        this.nbOfTerms = nbOfTerms;
+        this.partition = partition;
+        this.nbOfOwnTerms = partition.getNbOfTermsOf(nbOfTerms);
+    }
+
+    /**
+     * Creates a new generator for all terms of a sequence with the given number of terms.
+     *
+     * @param nbOfTerms
+     *        Number of terms of the sequence that fit a long.
+     * @effect | this(nbOfTerms, IDPartition.SINGLE)
+     */
+    protected SequenceIDGenerator(long nbOfTerms) {
+        this(nbOfTerms, IDPartition.SINGLE);
+    }
+
+    /*****************************
+     * Sequence
+     *****************************/
+
+    /**
+     * Returns the number of terms of the sequence that fit a long.
+     */
+    public long getNbOfTerms() {
+        return nbOfTerms;
+    }
+
+    /**
+     * Variable storing the number of terms of the sequence that fit a long.
+     */
+    private final long nbOfTerms;
+
+    /**
+     * Returns the partition of the terms this generator generates.
+     */
+    public IDPartition getPartition() {
+        return partition;
+    }
+
+    /**
+     * Variable referencing the partition of the terms this generator generates.
+     */
+    private final IDPartition partition;
+
+    /**
+     * Number of terms in the partition of this generator.
+     */
+    private final long nbOfOwnTerms;
+
+    /**
+     * Calculates the term of the sequence with the given index.
+     *
+     * @param index
+     *        Index of the term, the first term has index one.
+     * @pre | 1 &lt;= index &lt;= getNbOfTerms()
+     * @return The term with the given index.
+     */
+    protected abstract long termAt(long index);
+
+    /**
+     * Calculates the ID generated at the given step.
+     *
+     * @param step
+     *        Number of IDs generated before it since the last reset.
+     * @return The term of the partition of this generator for the given step.
+     *       | return termAt(getPartition().termIndexOf(step % nbOfOwnTerms) + 1)
+     */
+    long idAt(long step) {
+        return termAt(partition.termIndexOf(Math.floorMod(step, nbOfOwnTerms)) + 1);
+    }
+
+    /*****************************
+     * Interface method
+     *****************************/
+
+    /**
+     * Generates an ID.
+     *
+     * @return The term of the partition following the one generated last, or the first
+     *         term of the partition if its last term has been generated.
+     *       | return idAt(steps++)
+     * @note Safe to call from several threads at once, every call gets its own step.
+     */
+    @Override
+    public long generateID() {
+        return idAt(reserve(1));
+    }
+
+    /*****************************
+     * State variable and mutators
+     *****************************/
+
+    /**
+     * Checks if the next ID continues the sequence.
+     *
+     * @return False if the last term of the partition has just been generated, so the
+     *         next ID restarts the sequence.
+     *       | return steps == 0 || steps % nbOfOwnTerms != 0
+     */
+    public boolean hasNextID() {
+        long current = steps.get();
+        return current == 0 || Math.floorMod(current, nbOfOwnTerms) != 0;
+    }
+
+    /**
+     * Resets the generator to it's initial state. The next ID is the first term of
+     * the partition again.
+     *
+     * @effect | steps = 0
+     * @throws IllegalStateException
+     *         If the generator has a checkpoint, starting over would repeat IDs
+     *         handed out before.
+     */
+    public void reset() throws IllegalStateException {
+        if (checkpoint != null) {
+            throw new IllegalStateException("A checkpointed generator cannot be reset!");
+        }
+        steps.set(0L);
+    }
+
+    /**
+     * Reserves the given number of consecutive steps.
+     *
+     * @param size
+     *        Number of steps to reserve.
+     * @return The first of the reserved steps.
+     * @effect | steps = steps + size
+     * @effect If the generator has a checkpoint and the steps are not all covered by it,
+     *         a new batch of steps is recorded first.
+     *       | if (result + size &gt; reservedSteps) reserveDurably(result, size)
+     * @throws UncheckedIOException
+     *         If the checkpoint cannot be written. The steps are skipped then.
+     */
+    long reserve(int size) {
+        long first = steps.getAndAdd(size);
+        if (first + size > reservedSteps) {
+            first = reserveDurably(first, size);
+        }
+        return first;
+    }
+
+    /**
+     * Makes sure the checkpoint covers the given steps.
+     *
+     * @param first
+     *        First of the reserved steps.
+     * @param size
+     *        Number of reserved steps.
+     * @return The first of the given steps, or of newly reserved steps if the given
+     *         steps lie below the steps recorded when the checkpoint was attached.
+     * @effect If the steps reach beyond the reserved steps, the end of the steps plus
+     *         a batch is recorded in the checkpoint.
+     *       | checkpoint.record(result + size + batchSize)
+     * @throws UncheckedIOException
+     *         If the checkpoint cannot be written.
+     */
+    private synchronized long reserveDurably(long first, int size) throws UncheckedIOException {
+        while (first < durableFrom) {
+            first = steps.getAndAdd(size);
+        }
+        if (first + size > reservedSteps) {
+            long mark = first + size + batchSize;
+            try {
+                checkpoint.record(mark);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot record ID checkpoint " + checkpoint.getFile(), e);
+            }
+            reservedSteps = mark;
+        }
+        return first;
+    }
+
+    /**
+     * Counter of the IDs handed out since the last reset, leased ones included.
+     */
+    private final AtomicLong steps = new AtomicLong();
+
+    /*****************************
+     * Checkpoint
+     *****************************/
+
+    /**
+     * Records the steps handed out by this generator in the given file from now on.
+     *
+     * @param file
+     *        File holding the checkpoint, created if it does not exist.
+     * @param batchSize
+     *        Number of steps reserved with every write of the checkpoint.
+     * @effect The steps continue after the steps recorded in the file.
+     *       | steps = max(steps, checkpoint.getMark())
+     * @effect The checkpoint is extended by a batch of steps before any of them is used.
+     *       | checkpoint.record(steps + batchSize)
+     * @throws IOException
+     *         If the checkpoint cannot be opened or written. The generator is left
+     *         without a checkpoint then.
+     * @throws IllegalArgumentException
+     *         If the batch size is not strictly positive.
+     * @throws IllegalStateException
+     *         If the generator has a checkpoint already.
+     * @note Attach the checkpoint before the generator is shared, IDs generated at the
+     * same time as it is attached may repeat IDs of a previous run.
+     */
+    public synchronized void checkpointTo(Path file, int batchSize)
+            throws IOException, IllegalArgumentException, IllegalStateException {
+        if (checkpoint != null) {
+            throw new IllegalStateException("Generator already has a checkpoint!");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("A batch needs at least one step!");
+        }
+        IDCheckpoint opened = IDCheckpoint.open(file, partition);
+        // every reservation waits for this method, which holds the lock
+        reservedSteps = Long.MIN_VALUE;
+        long first = steps.updateAndGet(current -> Math.max(current, opened.getMark()));
+        try {
+            opened.record(first + batchSize);
+        } catch (IOException e) {
+            reservedSteps = Long.MAX_VALUE;
+            opened.close();
+            throw e;
+        }
+        this.batchSize = batchSize;
+        this.durableFrom = first;
+        this.checkpoint = opened;
+        this.reservedSteps = first + batchSize;
+    }
+
+    /**
+     * Returns the checkpoint of this generator, null if it has none.
+     */
+    public IDCheckpoint getCheckpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Checkpoint recording the steps handed out, null if there is none.
+     */
+    private volatile IDCheckpoint checkpoint = null;
+
+    /**
+     * Steps below this one are covered by the checkpoint. Without a checkpoint every
+     * step is.
+     */
+    private volatile long reservedSteps = Long.MAX_VALUE;
+
+    /**
+     * First step after the steps recorded when the checkpoint was attached.
+     */
+    private long durableFrom = 0L;
+
+    /**
+     * Number of steps reserved with every write of the checkpoint.
+     */
+    private int batchSize = IDCheckpoint.DEFAULT_BATCH_SIZE;
+
+    /*****************************
+     * Leasing
+     *****************************/
+
+    /**
+     * Leases a block of consecutive IDs.
+     *
+     * @param size
+     *        Number of IDs in the block.
+     * @return A block holding the IDs this generator would otherwise have generated in
+     *         its next size calls. The IDs are reserved at once, so no other call of this
+     *         generator gets them.
+     * @throws IllegalArgumentException
+     *         If the size is not strictly positive.
+     */
+    public IDBlock lease(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("A block needs at least one ID!");
+        }
+        return new IDBlock(this, reserve(size), size);
+    }
+
+    /**
+     * Creates a generator that hands out IDs from blocks leased from this generator.
+     *
+     * @param blockSize
+     *        Number of IDs leased at once.
+     * @return A generator that leases a new block of the given size whenever its block
+     *         is used up.
+     * @throws IllegalArgumentException
+     *         If the block size is not strictly positive.
+     * @note The returned generator is meant for a single thread, for example an item
+     * factory. IDs of different leasing generators are unique, but not generated in order.
+     */
+    public IDGenerator leasing(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("A block needs at least one ID!");
+        }
+        return new IDGenerator() {
+
+            private IDBlock block = null;
+
+            @Override
+            public long generateID() {
+                if (block == null || !block.hasNextID()) {
+                    block = lease(blockSize);
+                }
+                return block.generateID();
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package rpg.utility;
+
+import java.util.SplittableRandom;
+
+/**
+ * An implementation of the RandomSource interface backed by a SplittableRandom.
+ *
+ * @note A source created with a seed generates the same numbers every run, so
+ * fights can be replayed. A source is not safe to use from several threads,
+ * every thread should use its own split.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+public class SplittableRandomSource implements RandomSource {
+
+    /*****************************
+     * Constructors
+     *****************************/
+
+    /**
+     * Creates a new source from the given seed.
+     *
+     * @param seed
+     *        Seed of the source.
+     */
+    public SplittableRandomSource(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * Creates a new source with a seed that is likely different every run.
+     */
+    public SplittableRandomSource() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Creates a new source backed by the given generator.
+     *
+     * @param random
+     *        Generator the source uses.
+     */
+    private SplittableRandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Generator backing this source.
+     */
+    private final SplittableRandom random;
+
+    /*****************************
+     * Interface methods
+     *****************************/
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * The 24 high bits of a random int divided by 2^24, the same way
+     * Random.nextFloat builds its result.
+     */
+    @Override
+    public float nextFloat() {
+        return (random.nextInt() >>> 8) * 0x1.0p-24f;
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.split());
+    }
+}
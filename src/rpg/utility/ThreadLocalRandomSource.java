@@ -0,0 +1,52 @@
+package rpg.utility;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An implementation of the RandomSource interface that uses the random
+ * generator of the calling thread.
+ *
+ * @note There is only one instance, the generator it uses depends on the thread
+ * calling it, so it can be shared by all mobiles and threads.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ */
+public final class ThreadLocalRandomSource implements RandomSource {
+
+    /**
+     * The only instance of this class.
+     */
+    public static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+    /*****************************
+     * Constructor
+     *****************************/
+
+    private ThreadLocalRandomSource() {
+    }
+
+    /*****************************
+     * Interface methods
+     *****************************/
+
+    @Override
+    public int nextInt(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @Override
+    public float nextFloat() {
+        return ThreadLocalRandom.current().nextFloat();
+    }
+
+    /**
+     * Every thread already has its own generator.
+     *
+     * @return | result == this
+     */
+    @Override
+    public RandomSource split() {
+        return this;
+    }
+}
@@ -9,95 +9,67 @@ package rpg.utility;
  * @invar Every number generated shall be divisible by 3.
  *
  * @author Elias Storme
- * @version 1.1
+ * @version 2.0
  */
-public class WeaponIDGenerator implements IDGenerator {
+public class WeaponIDGenerator extends SequenceIDGenerator {
 
     /*****************************
-     * Constructor
+     * Constants
      *****************************/
 
     /**
-     * Creates a new WeaponIDGenerator.
-     *
-     * @effect Uses the reset method to initialise all values to their
-     * initial state.
-     * | reset()
+     * Number of positive multiples of six that fit a long.
      */
-    public WeaponIDGenerator() {
-        reset();
-    }
+    private static final long NB_OF_MULTIPLES = Long.MAX_VALUE / 6;
 
     /*****************************
-     * Interface method
+     * Constructor
      *****************************/
 
     /**
-     * Generates an ID.
+     * Creates a new WeaponIDGenerator.
      *
-     * @return The next sequential ID
-     * | return nextID()
-     * @effect Advances the generator one step.
-     * @effect If there is no sequential next ID, reset the generator.
-     * | if !hasNextID()
-     * |      reset()
+     * @effect The generator starts at the first multiple of six.
+     * | this(IDPartition.SINGLE)
      */
-    public long generateID() {
-        if (!hasNextID()) {
-            reset();
-        }
-        return nextID();
+    public WeaponIDGenerator() {
+        this(IDPartition.SINGLE);
     }
 
-    /*****************************
-     * State variable and mutator
-     *****************************/
-
     /**
-     * Resets the generator to it's initial state. nextID() will generate
-     * an ID as if the generator was just initialised.
+     * Creates a new WeaponIDGenerator that only generates the multiples of six of the
+     * given partition.
      *
-     * @effect counter is reset to 0.
+     * @param partition
+     *        Partition of the multiples of six this generator generates.
+     * @effect | super(NB_OF_MULTIPLES, partition)
      */
-    public void reset() {
-        this.counter = 0;
+    public WeaponIDGenerator(IDPartition partition) {
+        super(NB_OF_MULTIPLES, partition);
     }
 
-    /**
-     * Counter that is to be multiplied by six in order to calculate an ID.
-     * Incrementing this counter each time an ID is calculated ensures every
-     * multiple of 6 can be reached.
-     */
-    private long counter;
-
     /*****************************
      * Calculation
      *****************************/
 
     /**
-     * Calculates the sequentially next ID, advances the generator.
+     * Calculates the multiple of six with the given index.
      *
-     * @effect Advances the counter
-     * | counter = counter + 1
-     * @return The next ID. This is the counter multiplied by 6.
-     * | return counter * 6
+     * @return The index multiplied by 6.
+     * | return index * 6
      */
-    public long nextID() {
-        counter++;
-        return counter * 6;
+    @Override
+    protected long termAt(long index) {
+        return index * 6;
     }
 
-
     /**
-     * Checks if a next ID can be generated.
+     * Calculates the sequentially next ID, advances the generator.
      *
-     * @return False if the next id would overflow the long variable it is contained in.
-     * This is done by checking if the next calculated id is negative, as over-
-     * flowing a long in java causes it to flip the sign bit.
-     * | return counter * 6 &gt;= 0
+     * @return | return generateID()
      */
-    public boolean hasNextID() {
-        return (counter * 6) >= 0;
+    public long nextID() {
+        return generateID();
     }
 
 }
@@ -7,11 +7,203 @@ import org.junit.Before;
 import org.junit.Test;
 import rpg.utility.PrimeUtility;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 public class PrimeUtilityTest {
 
+	public int[] correctPrimes = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29};
+	public PrimeUtility util;
+
 	@Before
 	public void setUp() {
+		util = new PrimeUtility();
+	}
+
+	@Test
+	public void correctnessTest() {
+		int[] primes = new int[correctPrimes.length];
+		int found = 0;
+		for (int i = -3; found < primes.length; i++) {
+			if (util.isPrime(i)) primes[found++] = i;
+		}
+		assertArrayEquals(correctPrimes, primes);
+	}
+
+	@Test
+	public void beyondInitialSieve() {
+		assertTrue(util.isPrime(999983));
+		assertFalse(util.isPrime(999985));
+		assertTrue(util.getSievedLimit() > 999983);
+	}
+
+	@Test
+	public void concurrentGrowthMatchesSieve() throws Exception {
+		final int limit = 1 << 21;
+		final int nbOfThreads = 8;
+		boolean[] composite = new boolean[limit];
+		composite[0] = composite[1] = true;
+		for (int i = 2; (long) i * i < limit; i++)
+			if (!composite[i])
+				for (int j = i * i; j < limit; j += i)
+					composite[j] = true;
 
+		ExecutorService executor = Executors.newFixedThreadPool(nbOfThreads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<boolean[]>> results = new ArrayList<>();
+			for (int t = 0; t < nbOfThreads; t++) {
+				final int offset = t;
+				results.add(executor.submit(() -> {
+					boolean[] prime = new boolean[limit];
+					start.await();
+					// half of the threads grow the sieve step by step, the others jump to the end
+					if (offset % 2 == 0) {
+						for (int n = offset; n < limit; n += nbOfThreads) prime[n] = util.isPrime(n);
+						for (int n = 0; n < limit; n++) prime[n] = util.isPrime(n);
+					} else {
+						for (int n = limit - 1 - offset; n >= 0; n--) prime[n] = util.isPrime(n);
+						for (int n = limit - offset; n < limit; n++) prime[n] = util.isPrime(n);
+					}
+					return prime;
+				}));
+			}
+			start.countDown();
+			for (Future<boolean[]> result : results) {
+				boolean[] prime = result.get();
+				for (int n = 0; n < limit; n++)
+					if (prime[n] == composite[n]) fail("isPrime(" + n + ") returned " + prime[n]);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertTrue(util.getSievedLimit() >= limit);
 	}
 
+	@Test
+	public void closestPrime() {
+		assertEquals(2, util.closestPrime(0));
+		assertEquals(7, util.closestPrime(7));
+		assertEquals(3, util.closestPrime(4));
+		assertEquals(11, util.closestPrime(10));
+		assertEquals(1000003, util.closestPrime(1000002));
+	}
+
+	@Test
+	public void nextAndPreviousPrime() {
+		assertEquals(2, util.nextPrime(-10));
+		assertEquals(101, util.nextPrime(98));
+		assertEquals(97, util.previousPrime(100));
+	}
+
+	@Test
+	public void lookupTablesMatchSieve() {
+		PrimeUtility withoutTables = new PrimeUtility(0);
+		for (int i = 0; i < util.getLookupRange() + 100; i++) {
+			assertEquals(withoutTables.closestPrime(i), util.closestPrime(i));
+			assertEquals(withoutTables.nextPrime(i), util.nextPrime(i));
+		}
+	}
+
+	@Test
+	public void beyondSieveCeiling() {
+		assertTrue(util.isPrime(Integer.MAX_VALUE));
+		assertFalse(util.isPrime(25326001));
+		assertEquals(2000000011, util.closestPrime(2000000000));
+		assertTrue(util.isPrime(9223372036854775783L));
+		assertFalse(util.isPrime(3825123056546413051L));
+		assertTrue(util.getSievedLimit() <= util.getSieveCeiling());
+	}
+
+	@Test
+	public void mappedSieve() throws IOException {
+		Path file = Files.createTempFile("primes", ".bin");
+		try {
+			PrimeUtility.writeSieve(file, 1000000);
+			PrimeUtility mapped = PrimeUtility.mapSieve(file);
+			assertEquals(1000000, mapped.getSievedLimit());
+			assertTrue(mapped.isPrime(999983));
+			assertFalse(mapped.isPrime(999985));
+			assertEquals(util.closestPrime(123456), mapped.closestPrime(123456));
+			assertTrue(mapped.isPrime(1000003));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void sieveFromSystemProperties() throws IOException {
+		Path file = Files.createTempFile("primes", ".bin");
+		try {
+			PrimeUtility.writeSieve(file, 100000);
+			System.setProperty(PrimeUtility.SIEVE_FILE_PROPERTY, file.toString());
+			PrimeUtility mapped = PrimeUtility.fromSystemProperties();
+			assertEquals(100000, mapped.getSieveCeiling());
+			assertTrue(mapped.isPrime(99991));
+			System.clearProperty(PrimeUtility.SIEVE_FILE_PROPERTY);
+			assertEquals(PrimeUtility.DEFAULT_SIEVE_CEILING, PrimeUtility.fromSystemProperties().getSieveCeiling());
+		} finally {
+			System.clearProperty(PrimeUtility.SIEVE_FILE_PROPERTY);
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void mappedSieveCorrupt() throws IOException {
+		Path file = Files.createTempFile("primes", ".bin");
+		try {
+			writeCorruptSieve(file);
+			PrimeUtility.mapSieve(file);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void sieveFromSystemPropertiesUnmappable() throws IOException {
+		Path file = Files.createTempFile("primes", ".bin");
+		try {
+			writeCorruptSieve(file);
+			System.setProperty(PrimeUtility.SIEVE_FILE_PROPERTY, file.toString());
+			PrimeUtility corrupt = PrimeUtility.fromSystemProperties();
+			assertEquals(PrimeUtility.DEFAULT_SIEVE_CEILING, corrupt.getSieveCeiling());
+			assertTrue(corrupt.isPrime(7919));
+			Files.delete(file);
+			PrimeUtility missing = PrimeUtility.fromSystemProperties();
+			assertEquals(PrimeUtility.DEFAULT_SIEVE_CEILING, missing.getSieveCeiling());
+			assertFalse(missing.isPrime(7917));
+		} finally {
+			System.clearProperty(PrimeUtility.SIEVE_FILE_PROPERTY);
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void writeSieveLimitOne() throws IOException {
+		Path file = Files.createTempFile("primes", ".bin");
+		try {
+			PrimeUtility.writeSieve(file, 1);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static void writeCorruptSieve(Path file) throws IOException {
+		PrimeUtility.writeSieve(file, 1000);
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[bytes.length - 1] ^= 1;
+		Files.write(file, bytes);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void previousPrimeBelowTwo() {
+		util.previousPrime(1);
+	}
 }
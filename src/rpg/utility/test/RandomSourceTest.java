@@ -0,0 +1,39 @@
+package rpg.utility.test;
+
+import org.junit.Test;
+import rpg.utility.RandomSource;
+
+import static org.junit.Assert.*;
+
+public class RandomSourceTest {
+
+    @Test
+    public void seededIsReproducible() {
+        RandomSource first = RandomSource.seeded(42);
+        RandomSource second = RandomSource.seeded(42);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextInt(21), second.nextInt(21));
+            assertEquals(first.nextFloat(), second.nextFloat(), 0);
+        }
+    }
+
+    @Test
+    public void splitIsReproducible() {
+        RandomSource first = RandomSource.seeded(7).split();
+        RandomSource second = RandomSource.seeded(7).split();
+        assertEquals(first.nextInt(1000), second.nextInt(1000));
+    }
+
+    @Test
+    public void bounds() {
+        RandomSource[] sources = {RandomSource.seeded(1), RandomSource.threadLocal()};
+        for (RandomSource source : sources) {
+            for (int i = 0; i < 1000; i++) {
+                int seed = source.nextInt(21);
+                float percentage = source.nextFloat();
+                assertTrue(seed >= 0 && seed < 21);
+                assertTrue(percentage >= 0 && percentage < 1);
+            }
+        }
+    }
+}
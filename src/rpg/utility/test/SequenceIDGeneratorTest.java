@@ -0,0 +1,181 @@
+package rpg.utility.test;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import rpg.utility.BinomialGenerator;
+import rpg.utility.FibonacciGenerator;
+import rpg.utility.IDBlock;
+import rpg.utility.IDGenerator;
+import rpg.utility.IDPartition;
+import rpg.utility.WeaponIDGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SequenceIDGeneratorTest {
+
+    WeaponIDGenerator idGen;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        idGen = new WeaponIDGenerator();
+    }
+
+    @Test
+    public void leasedBlockContinuesSequence() {
+        idGen.generateID();
+        IDBlock block = idGen.lease(3);
+        long[] generated = {block.generateID(), block.generateID(), block.generateID()};
+        assertArrayEquals(new long[]{12, 18, 24}, generated);
+        assertFalse(block.hasNextID());
+        assertEquals(30, idGen.generateID());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void exhaustedBlock() {
+        IDBlock block = idGen.lease(1);
+        block.generateID();
+        block.generateID();
+    }
+
+    @Test
+    public void sequenceRestartsAfterLastTerm() {
+        BinomialGenerator binomial = new BinomialGenerator();
+        for (int i = 0; i < 62; i++) {
+            binomial.generateID();
+        }
+        assertFalse(binomial.hasNextID());
+        assertEquals(2, binomial.generateID());
+
+        FibonacciGenerator fibonacci = new FibonacciGenerator();
+        for (int i = 0; i < 92; i++) {
+            assertTrue(fibonacci.generateID() > 0);
+        }
+        assertEquals(1, fibonacci.generateID());
+    }
+
+    @Test
+    public void concurrentGenerationIsUnique() throws Exception {
+        Set<Long> generated = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            IDGenerator generator = t % 2 == 0 ? idGen : idGen.leasing(64);
+            results.add(executor.submit(() -> {
+                boolean unique = true;
+                for (int i = 0; i < 100000; i++) {
+                    unique &= generated.add(generator.generateID());
+                }
+                return unique;
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        executor.shutdown();
+        assertEquals(800000, generated.size());
+    }
+
+    @Test
+    public void partitionedWeaponIDs() {
+        WeaponIDGenerator node = new WeaponIDGenerator(new IDPartition(1, 3));
+        assertArrayEquals(new long[]{12, 30, 48},
+                new long[]{node.generateID(), node.generateID(), node.generateID()});
+    }
+
+    @Test
+    public void partitionsAreDisjoint() {
+        Set<Long> weaponIDs = new HashSet<>();
+        Set<Long> backpackIDs = new HashSet<>();
+        Set<Long> purseIDs = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            IDPartition partition = new IDPartition(i, 4);
+            WeaponIDGenerator weapons = new WeaponIDGenerator(partition);
+            BinomialGenerator backpacks = new BinomialGenerator(partition);
+            FibonacciGenerator purses = new FibonacciGenerator(partition);
+            for (int j = 0; j < 1000; j++) {
+                assertTrue(weaponIDs.add(weapons.generateID()));
+            }
+            do {
+                assertTrue(backpackIDs.add(backpacks.generateID()));
+            } while (backpacks.hasNextID());
+            do {
+                assertTrue(purseIDs.add(purses.generateID()));
+            } while (purses.hasNextID());
+        }
+        assertEquals(62, backpackIDs.size());
+        assertEquals(91, purseIDs.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void partitionWithoutTerms() {
+        new BinomialGenerator(new IDPartition(70, 80));
+    }
+
+    @Test
+    public void restartContinuesAfterCheckpoint() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("weapons.ids");
+        idGen.checkpointTo(file, 100);
+        long last = 0;
+        for (int i = 0; i < 250; i++) {
+            last = idGen.generateID();
+        }
+        idGen.getCheckpoint().close();
+
+        WeaponIDGenerator restarted = new WeaponIDGenerator();
+        restarted.checkpointTo(file, 100);
+        assertTrue(restarted.generateID() > last);
+        assertTrue(restarted.getCheckpoint().getMark() > 250);
+    }
+
+    @Test(expected = IOException.class)
+    public void checkpointOfOtherNode() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("backpacks.ids");
+        BinomialGenerator first = new BinomialGenerator();
+        first.checkpointTo(file, 10);
+        first.getCheckpoint().close();
+        new BinomialGenerator(new IDPartition(1, 2)).checkpointTo(file, 10);
+    }
+
+    @Test(expected = IOException.class)
+    public void checkpointOpenedTwice() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("weapons.ids");
+        idGen.checkpointTo(file, 10);
+        new WeaponIDGenerator().checkpointTo(file, 10);
+    }
+
+    @Test
+    public void closedCheckpointCanBeReopened() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("weapons.ids");
+        idGen.checkpointTo(file, 10);
+        idGen.getCheckpoint().close();
+        WeaponIDGenerator restarted = new WeaponIDGenerator();
+        restarted.checkpointTo(file, 10);
+        assertTrue(restarted.getCheckpoint().getMark() >= 10);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void resetCheckpointedGenerator() throws IOException {
+        idGen.checkpointTo(folder.getRoot().toPath().resolve("weapons.ids"), 10);
+        idGen.reset();
+    }
+}
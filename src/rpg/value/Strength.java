@@ -1,14 +1,26 @@
 package rpg.value;
 
-import jdk.nashorn.internal.ir.annotations.Immutable;
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Value;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
 import java.math.RoundingMode;
 
 /**
+ * A class of strength values with a numeral of two decimal places.
+ *
+ * @invar The numeral of each strength is never negative.
+ * | getNumeral().signum() != -1
+ * @invar The numeral of each strength has at most two decimal places.
+ * | getNumeral().scale() &lt;= PRECISION
+ * @note The numeral is stored as a long counting hundredths, so comparing and the
+ * arithmetic operations never create a BigDecimal. Results are looked up through
+ * valueOf, which shares one instance for every strength up to MAX_CACHED_HUNDREDTHS.
+ *
  * Created by elias on 16/07/2017.
  */
+@Value
 public class Strength implements Comparable<Strength>{
 
     /*****************************
@@ -19,7 +31,17 @@ public class Strength implements Comparable<Strength>{
      * Constant specifying the precision to be used when rounding strength values.
      * Determines the number of decimal places.
      */
-    public static int PRECISION = 2;
+    public static final int PRECISION = 2;
+
+    /**
+     * Number of hundredths in a whole unit of strength.
+     */
+    private static final long ONE = 100L;
+
+    /**
+     * Largest number of hundredths for which valueOf returns a shared instance.
+     */
+    private static final int MAX_CACHED_HUNDREDTHS = 10000;
 
     /*****************************
      * Constructors
@@ -35,30 +57,78 @@ public class Strength implements Comparable<Strength>{
      * |    this.numeral = numeral
      * @effect Else the numeral is set to zero.
      * | else this.numeral = 0
-     * @effect The numeral will be rounded to the precision specified by the
-     * MathContext constant.
+     * @effect The numeral will be rounded half even to the number of decimal places
+     * specified by the precision constant.
+     * | numeral.setScale(PRECISION, RoundingMode.HALF_EVEN)
+     * @throws ArithmeticException
+     *         If the rounded numeral cannot be represented in hundredths by a long.
      */
     public Strength(BigDecimal numeral){
         if(!isValidNumeral(numeral)){
-            this.numeral = BigDecimal.ZERO;
+            this.hundredths = 0L;
         } else {
-            this.numeral = numeral.round(getContext());
+            this.hundredths = numeral.setScale(PRECISION, RoundingMode.HALF_EVEN)
+                    .unscaledValue().longValueExact();
+        }
+    }
+
+    /**
+     * Initialises a new Strength with the given number of hundredths.
+     * @param hundredths
+     *        Non-negative numeral of the new strength, in hundredths.
+     */
+    private Strength(long hundredths){
+        this.hundredths = hundredths;
+    }
+
+    /**
+     * Returns a strength with the given numeral in hundredths.
+     * @param hundredths
+     *        Numeral of the strength, in hundredths.
+     * @return A strength whose numeral is the given number of hundredths, or no
+     * strength at all if that number is negative.
+     * | result.getHundredths() == max(0, hundredths)
+     * @note Strengths up to MAX_CACHED_HUNDREDTHS are shared, no new instance is created.
+     */
+    public static Strength valueOf(long hundredths){
+        if (hundredths <= 0) return none;
+        if (hundredths <= MAX_CACHED_HUNDREDTHS) return cache[(int) hundredths];
+        return new Strength(hundredths);
+    }
+
+    /**
+     * Shared instances for all strengths from zero up to MAX_CACHED_HUNDREDTHS.
+     */
+    private static final Strength[] cache = new Strength[MAX_CACHED_HUNDREDTHS + 1];
+
+    static {
+        for (int i = 0; i < cache.length; i++) {
+            cache[i] = new Strength(i);
         }
     }
 
     /**
      * Constantly defined instance of Strength depicting no strength at all.
      */
-    public final static Strength none =
-            new Strength(BigDecimal.ZERO);
+    public final static Strength none = cache[0];
 
     /*****************************
-     * Hashcode
+     * Equality & hashcode
      *****************************/
 
+    /**
+     * Checks whether this strength is equal to the given object.
+     * @return True if the other object is a strength with the same numeral.
+     * | return other instanceof Strength && compareTo(other) == 0
+     */
+    @Override
+    public boolean equals(Object other){
+        return other instanceof Strength && ((Strength) other).hundredths == hundredths;
+    }
+
     @Override
     public int hashCode(){
-        return getNumeral().hashCode() + "strength".hashCode();
+        return Long.hashCode(hundredths) + "strength".hashCode();
     }
 
     /*****************************
@@ -84,40 +154,29 @@ public class Strength implements Comparable<Strength>{
 
     /**
      * Getter for the numeral.
+     * @return A new BigDecimal with the numeral, scaled to the precision constant.
+     * | return getHundredths() / 100
      */
     public BigDecimal getNumeral() {
-        return numeral;
+        return BigDecimal.valueOf(hundredths, PRECISION);
     }
 
     /**
-     * Variable storing the numerical value of this instance of Strength.
-     */
-    private final BigDecimal numeral;
-
-    /*****************************
-     * Rounding & precision
-     *****************************/
-
-    /**
-     * Retrieves the MathContext to be used when rounding the numeral.
+     * Returns the numeral of this strength in hundredths.
      *
-     * @return MathContext object determining the way the numeral of the Strength class is
-     * rounded and what precision it has.
-     * <p>
-     * The precision is set according to the precision constant, specifying how many decimal
-     * places rounding is to be done to.
-     * <p>
-     * The rounding is done using the half even method, dictating that rounding is
-     * done to the nearest neighbour and the even neighbour if equidistant.
+     * @return | return getNumeral() * 100
      */
+    @Basic
     @Immutable
-    private static MathContext getContext(){
-        return new MathContext(
-                PRECISION,
-                RoundingMode.HALF_EVEN
-        );
+    public long getHundredths() {
+        return hundredths;
     }
 
+    /**
+     * Variable storing the numerical value of this instance of Strength in hundredths.
+     */
+    private final long hundredths;
+
     /*****************************
      * Logical inspectors
      *****************************/
@@ -135,7 +194,7 @@ public class Strength implements Comparable<Strength>{
      */
     @Override
     public int compareTo(Strength other) {
-        return getNumeral().compareTo(other.getNumeral());
+        return Long.compare(hundredths, other.hundredths);
     }
 
     /**
@@ -144,7 +203,7 @@ public class Strength implements Comparable<Strength>{
      * | return numeral.signum()
      */
     public int signum(){
-        return getNumeral().signum();
+        return Long.signum(hundredths);
     }
 
     /*****************************
@@ -160,16 +219,15 @@ public class Strength implements Comparable<Strength>{
      * @return Else return new strength with as numeral the current strength plus the given
      * amount.
      * | return new Strength(numeral + amount)
+     * @throws ArithmeticException
+     *         If the resulting numeral cannot be represented in hundredths by a long.
      */
     public Strength add(int amount){
-        BigDecimal newNumeral = getNumeral().add(new BigDecimal(amount));
-        return new Strength(
-                newNumeral.signum() == -1 ? BigDecimal.ZERO : newNumeral
-        );
+        return valueOf(Math.addExact(hundredths, Math.multiplyExact(amount, ONE)));
     }
 
     /**
-     * Multiplies the numeral of this strength with the given double factor.
+     * Multiplies the numeral of this strength with the given integer factor.
      * @param factor
      *        Multiplication factor.
      * @return If the given factor is equal to zero, returns the strength constant none.
@@ -179,40 +237,48 @@ public class Strength implements Comparable<Strength>{
      *         Else return new instance of strength with as numeral the product of
      *         the old numeral and the given factor.
      *       | else return new Strength(numeral * factor)
-     * @note Private because specification dictates strength should only be multiplied or
-     * divided by whole numbers.
-     */
-    private Strength multiply(double factor){
-        if (factor == 0){
-            return Strength.none;
-        } else if (factor < 0){
-            return this.multiply(Math.abs(factor));
-        } else {
-            BigDecimal newNumeral =
-                    getNumeral().multiply(new BigDecimal(factor));
-            return new Strength(newNumeral);
-        }
-    }
-
-    /**
-     * Multiplies the numeral of this strength with the given integer factor.
-     * @param factor
-     *        Multiplication factor.
-     * @return Casts integer to double and multiplies.
-     *       | return multiply((double) factor)
+     * @throws ArithmeticException
+     *         If the product cannot be represented in hundredths by a long.
      */
     public Strength multiply(int factor){
-        return multiply((double) factor);
+        return valueOf(Math.multiplyExact(hundredths, Math.abs((long) factor)));
     }
 
     /**
      * Divides the numeral of this strength by the given integer divisor.
      * @param divisor
      *        Value to divide with.
-     * @return Multiplies by one over the given divisor.
-     *       | return multiply(1/divisor)
+     * @return If the divisor is negative, divide by absolute value.
+     *       | if divisor < 0 return divide(abs(divisor))
+     *         Else return new instance of strength with as numeral the quotient
+     *         rounded half even to the precision constant.
+     *       | else return new Strength(numeral / divisor)
+     * @throws ArithmeticException
+     *         If the divisor is zero.
+     *       | divisor == 0
      */
     public Strength divide(int divisor){
-        return multiply(1/divisor);
+        if (divisor == 0) {
+            throw new ArithmeticException("Strength cannot be divided by zero!");
+        }
+        return valueOf(divideHalfEven(hundredths, Math.abs((long) divisor)));
+    }
+
+    /**
+     * Divides the given dividend by the given divisor, rounding to the nearest
+     * whole number and to the even one if both are equally near.
+     * @param dividend
+     *        Non-negative value to divide.
+     * @param divisor
+     *        Strictly positive value to divide by.
+     * @return | return round(dividend / divisor, HALF_EVEN)
+     */
+    static long divideHalfEven(long dividend, long divisor){
+        long quotient = dividend / divisor;
+        long twiceRemainder = (dividend - quotient * divisor) * 2;
+        if (twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) == 1)) {
+            quotient++;
+        }
+        return quotient;
     }
 }
@@ -6,6 +6,7 @@ import be.kuleuven.cs.som.annotate.Raw;
 import be.kuleuven.cs.som.annotate.Value;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.MathContext;
 import java.math.RoundingMode;
 
@@ -19,12 +20,20 @@ import java.math.RoundingMode;
  * | isValidNumeral(getNumeral())
  * @invar The numeral must be rounded to the following decimal places
  * in accordance with it's unit:
- * kg: 5, g: 2, lbs: 4
- * | isValidRounding(getNumeral(), getUnit())
+ * kg: 6, g: 3, lbs: 5
+ * | getNumeral().scale() &lt;= getUnit().getPrecision()
  * @note This invariant is enforced by rounding at initialisation as each mutator
  * returns a newly constructed object with modified values.
+ * @note The numeral is stored as a long counting units of the smallest decimal place
+ * allowed by the unit (milligrams for both kg and g, 10 micropounds for lbs). A BigDecimal
+ * is only materialised when the numeral is inspected through getNumeral() or toString().
  * @invar The unit of each weight must be a valid unit.
  * | isValidUnit(getUnit())
+ * @invar The scaled numeral of each weight fits a long, so no weight exceeds
+ * about 9.2 * 10^12 kg, 9.2 * 10^15 g or 9.2 * 10^13 lbs.
+ * | getNumeral().movePointRight(getUnit().getPrecision()) &lt;= Long.MAX_VALUE
+ * @note Operations whose result would not satisfy this invariant throw an
+ * ArithmeticException, comparisons never do.
  */
 @Value
 public class Weight implements Comparable<Weight> {
@@ -45,21 +54,42 @@ public class Weight implements Comparable<Weight> {
      * this is not the case, zero is set as the numeral.
      * | if(!isValidNumeral(numeral) this.numeral = Bigdecimal.ZERO
      * @post The numeral has to be rounded to the correct number of decimal places
-     * | isValidRounding(this.numeral)
+     * | getNumeral().scale() &lt;= getUnit().getPrecision()
+     * @throws ArithmeticException
+     *         If the rounded numeral cannot be represented by the scaled numeral,
+     *         that is if it exceeds Long.MAX_VALUE units of its last decimal place.
+     *       | numeral.movePointRight(getUnit().getPrecision()) &gt; Long.MAX_VALUE
      */
     public Weight(BigDecimal numeral, Unit unit) {
         //set unit
         if (isValidUnit(unit)) this.unit = unit;
         else this.unit = Unit.kg;
 
-        BigDecimal provisionalNumeral;
-        //check numeral validity
-        if (isValidNumeral(numeral)) provisionalNumeral = numeral;
-        else provisionalNumeral = BigDecimal.ZERO;
-        //check rounding
-        if (!isValidRounding(provisionalNumeral, getUnit())) this.numeral =
-                provisionalNumeral.round(getContext()).stripTrailingZeros();
-        else this.numeral = provisionalNumeral;
+        //check numeral validity, then round to the decimal places of the unit
+        if (isValidNumeral(numeral))
+            this.scaledNumeral = numeral
+                    .setScale(getUnit().getPrecision(), RoundingMode.HALF_EVEN)
+                    .unscaledValue().longValueExact();
+        else this.scaledNumeral = 0L;
+    }
+
+    /**
+     * Initialize the new weight with the given unit and a numeral that is already
+     * scaled to the decimal places of that unit.
+     *
+     * @param unit          The unit for this new weight.
+     * @param scaledNumeral The numeral for this new weight, multiplied by ten to the
+     *                      power of the precision of the given unit.
+     * @pre The unit must be valid.
+     * | isValidUnit(unit)
+     * @post If the scaled numeral is negative, zero is set as the numeral.
+     * | if(scaledNumeral &lt; 0) this.scaledNumeral = 0
+     */
+    @Raw
+    Weight(Unit unit, long scaledNumeral) {
+        assert isValidUnit(unit);
+        this.unit = unit;
+        this.scaledNumeral = scaledNumeral < 0 ? 0L : scaledNumeral;
     }
 
     /**
@@ -96,7 +126,8 @@ public class Weight implements Comparable<Weight> {
      * | this(new Bigdecimal(numeral), unit)
      */
     public Weight(int numeral, Unit unit) {
-        this(new BigDecimal(numeral), unit);
+        this(isValidUnit(unit) ? unit : Unit.kg,
+                numeral * scaleFactors[(isValidUnit(unit) ? unit : Unit.kg).ordinal()]);
     }
 
     /**
@@ -111,12 +142,28 @@ public class Weight implements Comparable<Weight> {
 
     /**
      * Return the numeral of this capacity amount.
+     *
+     * @return The scaled numeral expressed as a BigDecimal, without trailing zeros
+     * behind the decimal point.
+     * | result.equals(new BigDecimal(scaledNumeral).movePointLeft(getUnit().getPrecision()))
      */
-    @Basic
     @Raw
     @Immutable
     public BigDecimal getNumeral() {
-        return this.numeral;
+        BigDecimal numeral = BigDecimal.valueOf(this.scaledNumeral, getUnit().getPrecision())
+                .stripTrailingZeros();
+        return numeral.scale() < 0 ? numeral.setScale(0) : numeral;
+    }
+
+    /**
+     * Return the numeral of this weight multiplied by ten to the power of the
+     * precision of its unit.
+     */
+    @Basic
+    @Raw
+    @Immutable
+    long getScaledNumeral() {
+        return this.scaledNumeral;
     }
 
     /**
@@ -131,23 +178,10 @@ public class Weight implements Comparable<Weight> {
     }
 
     /**
-     * Checks if the given numeral has the correct rounding in accordance
-     * with the unit.
-     *
-     * @param numeral Numeral of which the rounding is to be checked.
-     * @param unit    Unit to check the rounding against.
-     * @return Return true if the number of decimal places in the numeral matches the
-     * rounding specified by the unit.
-     * | numeral.scale() == unit.getPrecision()
-     */
-    private static boolean isValidRounding(BigDecimal numeral, Unit unit) {
-        return numeral.scale() == unit.getPrecision();
-    }
-
-    /**
-     * A variable that references the numeral of this weight.
+     * A variable that references the numeral of this weight, scaled to
+     * the decimal places dictated by its unit.
      */
-    private final BigDecimal numeral;
+    private final long scaledNumeral;
 
     /************************************************
      * Unit
@@ -187,17 +221,54 @@ public class Weight implements Comparable<Weight> {
      * |     convertedNumeral = this.getNumeral().multiply(conversionRate)
      * | in
      * |     return new Weight(convertedNumeral, unit)
+     * @throws ArithmeticException
+     *         If the converted numeral cannot be represented by the scaled numeral.
      */
     public Weight toUnit(Unit unit) {
         if (!isValidUnit(unit))
             return this.toUnit(Unit.kg);
         if (this.getUnit() == unit)
             return this;
-        BigDecimal conversionRate =
-                this.getUnit().toUnit(unit);
-        BigDecimal convertedNumeral =
-                getNumeral().multiply(conversionRate);
-        return new Weight(convertedNumeral, unit);
+        return new Weight(unit, scaledIn(unit));
+    }
+
+    /**
+     * Return the scaled numeral of this weight converted to the given unit.
+     *
+     * @param unit The unit to convert to.
+     * @return The scaled numeral multiplied by the conversion factor between
+     * both units, rounded half even.
+     * | let
+     * |     factor = conversionNumerators[from][to] / conversionDenominators[from][to]
+     * | in
+     * |     return round(getScaledNumeral() * factor)
+     * @pre The given unit must be valid.
+     * | isValidUnit(unit)
+     * @throws ArithmeticException
+     *         If the converted numeral does not fit a long.
+     * @note Conversions that fit in a long are done in integer arithmetic, only
+     * exceptionally large weights fall back on BigInteger.
+     */
+    long scaledIn(Unit unit) {
+        int from = getUnit().ordinal();
+        int to = unit.ordinal();
+        long numerator = conversionNumerators[from][to];
+        long denominator = conversionDenominators[from][to];
+        if (numerator == denominator)
+            return getScaledNumeral();
+        if (getScaledNumeral() <= Long.MAX_VALUE / numerator) {
+            long product = getScaledNumeral() * numerator;
+            long quotient = product / denominator;
+            long twiceRemainder = (product % denominator) * 2;
+            if (twiceRemainder > denominator ||
+                    (twiceRemainder == denominator && (quotient & 1) == 1))
+                quotient++;
+            return quotient;
+        }
+        return new BigDecimal(BigInteger.valueOf(getScaledNumeral())
+                .multiply(BigInteger.valueOf(numerator)))
+                .divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_EVEN)
+                .longValueExact();
     }
 
     /**
@@ -220,14 +291,57 @@ public class Weight implements Comparable<Weight> {
      * <p>
      * The rounding is done using the half even method, dictating that rounding is
      * done to the nearest neighbour and the even neighbour if equidistant.
+     * | let
+     * |     integerDigits = getNumeral().precision() - getNumeral().scale()
+     * | in
+     * |     result.getPrecision() == max(1, integerDigits + getUnit().getPrecision())
+     * @note The precision counts significant digits, so it covers the integer digits of
+     * the numeral and the decimal places of the unit. Rounding a number of the same
+     * magnitude as the numeral with this context rounds it to the decimal places of the unit.
      */
     public MathContext getContext() {
+        BigDecimal numeral = getNumeral();
         return new MathContext(
-                getUnit().getPrecision(),
+                Math.max(1, numeral.precision() - numeral.scale() + getUnit().getPrecision()),
                 RoundingMode.HALF_EVEN
         );
     }
 
+    /**
+     * Factors by which a whole numeral is multiplied to obtain the scaled numeral,
+     * indexed by the ordinal of the unit.
+     */
+    private static final long[] scaleFactors = new long[Unit.values().length];
+
+    /**
+     * Two-dimensional arrays registering the conversion factor between the scaled
+     * numerals of two units as a reduced fraction. The first level is indexed by
+     * the ordinal of the unit to convert from, the second by the unit to convert to.
+     */
+    private static final long[][] conversionNumerators =
+            new long[Unit.values().length][Unit.values().length];
+    private static final long[][] conversionDenominators =
+            new long[Unit.values().length][Unit.values().length];
+
+    static {
+        for (Unit from : Unit.values()) {
+            scaleFactors[from.ordinal()] = BigInteger.TEN.pow(from.getPrecision()).longValueExact();
+            for (Unit to : Unit.values()) {
+                BigDecimal rate = from.toUnit(to);
+                int shift = to.getPrecision() - from.getPrecision() - rate.scale();
+                BigInteger numerator = rate.unscaledValue();
+                BigInteger denominator = BigInteger.ONE;
+                if (shift >= 0) numerator = numerator.multiply(BigInteger.TEN.pow(shift));
+                else denominator = BigInteger.TEN.pow(-shift);
+                BigInteger gcd = numerator.gcd(denominator);
+                conversionNumerators[from.ordinal()][to.ordinal()] =
+                        numerator.divide(gcd).longValueExact();
+                conversionDenominators[from.ordinal()][to.ordinal()] =
+                        denominator.divide(gcd).longValueExact();
+            }
+        }
+    }
+
     /************************************************
      * utility
      ************************************************/
@@ -237,7 +351,7 @@ public class Weight implements Comparable<Weight> {
      */
     @Override
     public int hashCode() {
-        return getNumeral().hashCode() + getUnit().hashCode();
+        return Long.hashCode(getScaledNumeral()) + getUnit().hashCode();
     }
 
     /**
@@ -278,14 +392,19 @@ public class Weight implements Comparable<Weight> {
      * to the unit of the prime object and compare.
      * | else
      * |    return compareTo(other.toUnit(this.getUnit()))
+     * @note The conversion is done on the scaled numerals, no intermediate weight is created.
+     * An other weight too large to be expressed in the unit of this weight is larger.
      */
     @Override
     public int compareTo(Weight other) {
         if (other == null) return 1;
         if (getUnit() == other.getUnit())
-            return getNumeral().compareTo(other.getNumeral());
-        else
-            return this.compareTo(other.toUnit(this.getUnit()));
+            return Long.compare(getScaledNumeral(), other.getScaledNumeral());
+        try {
+            return Long.compare(getScaledNumeral(), other.scaledIn(this.getUnit()));
+        } catch (ArithmeticException e) {
+            return -1;
+        }
     }
 
     /**
@@ -300,8 +419,11 @@ public class Weight implements Comparable<Weight> {
         if (other == null) return false;
         if (this.getUnit() == other.getUnit())
             return this.hasSameNumeral(other);
-        else
-            return this.hasSameNumeral(other.toUnit(this.getUnit()));
+        try {
+            return this.getScaledNumeral() == other.scaledIn(this.getUnit());
+        } catch (ArithmeticException e) {
+            return false;
+        }
     }
 
     /**
@@ -318,7 +440,7 @@ public class Weight implements Comparable<Weight> {
      * | this.getUnit() == other.getUnit()
      */
     private boolean hasSameNumeral(Weight other) {
-        return this.getNumeral().equals(other.getNumeral());
+        return this.getScaledNumeral() == other.getScaledNumeral();
     }
 
     /**
@@ -354,28 +476,18 @@ public class Weight implements Comparable<Weight> {
      * @param other The weight to be added to the prime weight.
      * @return Else convert other to the unit of this weight and add them together.
      * | return this.add(other.toUnit(this.getUnit()))
+     * @throws ArithmeticException
+     *         If the sum, or the other weight expressed in the unit of this weight,
+     *         cannot be represented by the scaled numeral.
      */
     public Weight add(Weight other) {
         if (other == null) return this;
         if (this.getUnit() == other.getUnit())
-            return this.addNumerals(other);
+            return new Weight(getUnit(),
+                    Math.addExact(getScaledNumeral(), other.getScaledNumeral()));
         else
-            return this.addNumerals(other.toUnit(this.getUnit()));
-    }
-
-    /**
-     * Adds the numerals of the prime weight and the given other together.
-     *
-     * @param other Other weight to be added.
-     * @return New weight with as numeral the sum of this and other's numerals.
-     * @pre other may not be a null reference
-     * @pre both weights must have the same unit.
-     */
-    private Weight addNumerals(Weight other) {
-        BigDecimal total = BigDecimal.ZERO;
-        total = total.add(this.getNumeral());
-        total = total.add(other.getNumeral());
-        return new Weight(total, this.getUnit());
+            return new Weight(getUnit(),
+                    Math.addExact(getScaledNumeral(), other.scaledIn(getUnit())));
     }
 
     /**
@@ -388,12 +500,17 @@ public class Weight implements Comparable<Weight> {
      * |     newNumeral = this.getNumeral().multiply(factor)
      * | then
      * |     return new Weight(newNumeral, getUnit())
+     * @throws ArithmeticException
+     *         If the product cannot be represented by the scaled numeral.
      */
     public Weight multiply(BigDecimal factor) {
-        if (factor == null) return new Weight(0, this.getUnit());
+        if (factor == null) return new Weight(this.getUnit(), 0L);
         if (factor.signum() != -1) {
-            BigDecimal newNumeral = this.getNumeral().multiply(factor);
-            return new Weight(newNumeral, this.getUnit());
+            long newScaledNumeral = BigDecimal.valueOf(getScaledNumeral())
+                    .multiply(factor)
+                    .setScale(0, RoundingMode.HALF_EVEN)
+                    .longValueExact();
+            return new Weight(this.getUnit(), newScaledNumeral);
         } else {
             return this.multiply(factor.abs());
         }
@@ -403,12 +520,15 @@ public class Weight implements Comparable<Weight> {
      * Multiplies this weight by an integer factor.
      *
      * @param factor Integer to multiply the weight by.
-     * @return Converts the integer to a BigDecimal, then calculates the
-     * multiple with method multiply(BigDecimal)
+     * @return The same result as multiplying with the BigDecimal equivalent of
+     * the integer, calculated on the scaled numeral.
      * | return multiply(new BigDecimal(factor))
+     * @throws ArithmeticException
+     *         If the product cannot be represented by the scaled numeral.
      */
     public Weight multiply(int factor) {
-        return multiply(new BigDecimal(factor));
+        return new Weight(getUnit(),
+                Math.multiplyExact(getScaledNumeral(), Math.abs((long) factor)));
     }
 
     /**
@@ -417,9 +537,14 @@ public class Weight implements Comparable<Weight> {
      *        Instance of strength to multiply by.
      * @return New instance of Weight with as numeral the product of the numerals
      * from the current weight and the given strength.
+     * | return multiply(factor.getNumeral())
+     * @throws ArithmeticException
+     *         If the product cannot be represented by the scaled numeral.
      */
     public Weight multiply(Strength factor) {
-        return this.multiply(factor.getNumeral());
+        if (factor == null) return new Weight(this.getUnit(), 0L);
+        long product = Math.multiplyExact(getScaledNumeral(), factor.getHundredths());
+        return new Weight(getUnit(), Strength.divideHalfEven(product, 100L));
     }
 
 }
@@ -0,0 +1,264 @@
+package rpg.value;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import be.kuleuven.cs.som.annotate.Raw;
+
+/**
+ * A class of mutable accumulators for summing up a series of weights
+ * without creating an intermediate weight for every partial sum.
+ *
+ * @author Elias Storme
+ * @version 1.0
+ * @invar The unit of each accumulator must be a valid unit.
+ * | Weight.isValidUnit(getUnit())
+ * @invar The accumulated total is never negative.
+ * | toWeight().compareTo(Weight.kg_0) &gt;= 0
+ * @note The total is stored the same way Weight stores its numeral, as a long
+ * scaled to the decimal places of the unit. Adding a weight with the same unit
+ * is a single addition, other units are converted with the same rounding Weight.add
+ * uses, so summing with an accumulator gives the same result as folding with add.
+ */
+public class WeightAccumulator {
+
+    /************************************************
+     * Constructors
+     ************************************************/
+
+    /**
+     * Initialise a new, empty accumulator that sums in the given unit.
+     *
+     * @param unit The unit to sum in.
+     * @post If the given unit is not valid, kg is used.
+     * | if(!Weight.isValidUnit(unit)) this.unit = Unit.kg
+     * @post The accumulated total is zero.
+     * | toWeight().getNumeral().signum() == 0
+     */
+    public WeightAccumulator(Unit unit) {
+        if (Weight.isValidUnit(unit)) this.unit = unit;
+        else this.unit = Unit.kg;
+    }
+
+    /**
+     * Initialise a new, empty accumulator that sums in kilograms.
+     *
+     * @effect | this(Unit.kg)
+     */
+    public WeightAccumulator() {
+        this(Unit.kg);
+    }
+
+    /************************************************
+     * Unit
+     ************************************************/
+
+    /**
+     * Returns the unit this accumulator sums in.
+     */
+    @Basic
+    @Raw
+    @Immutable
+    public Unit getUnit() {
+        return this.unit;
+    }
+
+    /**
+     * Variable referencing the unit this accumulator sums in.
+     */
+    private final Unit unit;
+
+    /************************************************
+     * Mutators
+     ************************************************/
+
+    /**
+     * Adds the given weight to the accumulated total.
+     *
+     * @param weight The weight to be added.
+     * @return This accumulator, so calls can be chained.
+     * @effect If the weight is effective, it is converted to the unit of this
+     * accumulator and added to the total.
+     * | if(weight != null) total = total.add(weight)
+     * @throws ArithmeticException
+     *         If the total cannot be represented by a scaled numeral anymore.
+     */
+    public WeightAccumulator add(Weight weight) {
+        if (weight == null) return this;
+        if (weight.getUnit() == getUnit())
+            scaledTotal = Math.addExact(scaledTotal, weight.getScaledNumeral());
+        else
+            scaledTotal = Math.addExact(scaledTotal, weight.scaledIn(getUnit()));
+        return this;
+    }
+
+    /**
+     * Adds the given weight the given number of times to the accumulated total.
+     *
+     * @param weight The weight to be added.
+     * @param times  How many times the weight is to be added.
+     * @return This accumulator, so calls can be chained.
+     * @effect If the weight is effective and times is positive, the weight
+     * multiplied by times is added to the total.
+     * | if(weight != null && times &gt; 0) total = total.add(weight.multiply(times))
+     * @throws ArithmeticException
+     *         If the total cannot be represented by a scaled numeral anymore.
+     */
+    public WeightAccumulator add(Weight weight, long times) {
+        if (weight == null || times <= 0) return this;
+        long scaled = weight.getUnit() == getUnit() ?
+                weight.getScaledNumeral() : weight.scaledIn(getUnit());
+        scaledTotal = Math.addExact(scaledTotal, Math.multiplyExact(scaled, times));
+        return this;
+    }
+
+    /**
+     * Subtracts the given weight from the accumulated total.
+     *
+     * @param weight The weight to be subtracted.
+     * @return This accumulator, so calls can be chained.
+     * @effect If the weight is effective, it is converted to the unit of this
+     * accumulator and subtracted from the total.
+     * | if(weight != null) total = total - weight
+     * @throws IllegalArgumentException
+     *         If the weight is larger than the accumulated total, the total is unchanged then.
+     *       | toWeight().compareTo(weight) &lt; 0
+     * @note A running total that would drop below zero has not been kept up to date,
+     * so this fails instead of hiding the difference.
+     */
+    public WeightAccumulator subtract(Weight weight) throws IllegalArgumentException {
+        if (weight == null) return this;
+        long scaled = weight.getUnit() == getUnit() ?
+                weight.getScaledNumeral() : weight.scaledIn(getUnit());
+        if (scaled > scaledTotal) {
+            throw new IllegalArgumentException("Cannot subtract " + weight + " from " + this + "!");
+        }
+        scaledTotal -= scaled;
+        return this;
+    }
+
+    /**
+     * Adds all the given weights to the accumulated total.
+     *
+     * @param weights The weights to be added.
+     * @return This accumulator, so calls can be chained.
+     * @effect | for each weight in weights: add(weight)
+     */
+    public WeightAccumulator addAll(Iterable<Weight> weights) {
+        if (weights == null) return this;
+        for (Weight weight : weights) {
+            add(weight);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the total accumulated by the given other accumulator to this one.
+     *
+     * @param other The accumulator whose total is to be added.
+     * @return This accumulator, so calls can be chained.
+     * @effect | add(other.toWeight())
+     */
+    public WeightAccumulator addAll(WeightAccumulator other) {
+        if (other == null) return this;
+        if (other.getUnit() == getUnit())
+            scaledTotal = Math.addExact(scaledTotal, other.scaledTotal);
+        else
+            add(other.toWeight());
+        return this;
+    }
+
+    /**
+     * Resets the accumulated total to zero so the accumulator can be reused.
+     *
+     * @post | toWeight().getNumeral().signum() == 0
+     */
+    public void reset() {
+        scaledTotal = 0L;
+    }
+
+    /**
+     * Variable storing the accumulated total, scaled to the decimal places
+     * of the unit of this accumulator.
+     */
+    private long scaledTotal = 0L;
+
+    /************************************************
+     * Inspectors
+     ************************************************/
+
+    /**
+     * Compares the accumulated total to the given capacity.
+     *
+     * @param capacity The capacity to compare to.
+     * @return The same result as comparing the accumulated weight to the capacity.
+     * | return toWeight().compareTo(capacity)
+     * @note A capacity too large to be expressed in the unit of this accumulator is
+     * larger.
+     */
+    public int compareToCapacity(Weight capacity) {
+        if (capacity == null) return 1;
+        if (capacity.getUnit() == getUnit())
+            return Long.compare(scaledTotal, capacity.getScaledNumeral());
+        try {
+            return Long.compare(scaledTotal, capacity.scaledIn(getUnit()));
+        } catch (ArithmeticException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Checks whether the accumulated total exceeds the given capacity.
+     *
+     * @param capacity The capacity to check against.
+     * @return | return compareToCapacity(capacity) == 1
+     */
+    public boolean exceeds(Weight capacity) {
+        return compareToCapacity(capacity) == 1;
+    }
+
+    /**
+     * Checks whether the accumulated total plus the given weight exceeds the given
+     * capacity, without changing the total.
+     *
+     * @param weight   The weight that would be added.
+     * @param capacity The capacity to check against.
+     * @return | return copy.add(weight).exceeds(capacity)
+     * @note A capacity too large to be expressed in the unit of this accumulator is
+     * never exceeded.
+     */
+    public boolean exceedsWith(Weight weight, Weight capacity) {
+        if (capacity == null) return true;
+        long scaledCapacity;
+        try {
+            scaledCapacity = capacity.getUnit() == getUnit() ?
+                    capacity.getScaledNumeral() : capacity.scaledIn(getUnit());
+        } catch (ArithmeticException e) {
+            return false;
+        }
+        if (weight == null) return scaledTotal > scaledCapacity;
+        long scaledWeight = weight.getUnit() == getUnit() ?
+                weight.getScaledNumeral() : weight.scaledIn(getUnit());
+        // compare the weight to the headroom left, so the sum cannot overflow
+        return scaledWeight > scaledCapacity - scaledTotal;
+    }
+
+    /**
+     * Returns the accumulated total as a weight.
+     *
+     * @return A new weight in the unit of this accumulator with the accumulated total
+     * as its numeral.
+     */
+    public Weight toWeight() {
+        return new Weight(getUnit(), scaledTotal);
+    }
+
+    /**
+     * Return a textual representation of this accumulator.
+     *
+     * @return | result.equals(toWeight().toString())
+     */
+    @Override
+    public String toString() {
+        return toWeight().toString();
+    }
+}
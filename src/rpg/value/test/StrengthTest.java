@@ -0,0 +1,70 @@
+package rpg.value.test;
+
+import org.junit.Test;
+import rpg.value.Strength;
+import rpg.value.Unit;
+import rpg.value.Weight;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class StrengthTest {
+
+    static Strength twelve = new Strength(new BigDecimal("12"));
+
+    @Test
+    public void constructorRoundsToTwoDecimalPlaces() {
+        assertEquals(new BigDecimal("12.34"), new Strength(new BigDecimal("12.345")).getNumeral());
+        assertEquals(new BigDecimal("123.46"), new Strength(new BigDecimal("123.456")).getNumeral());
+        assertEquals(12346L, new Strength(new BigDecimal("123.456")).getHundredths());
+    }
+
+    @Test
+    public void constructorInvalidNumeralIsNone() {
+        assertEquals(Strength.none, new Strength(null));
+        assertEquals(Strength.none, new Strength(new BigDecimal("-1")));
+    }
+
+    @Test
+    public void valueOfSharesCachedInstances() {
+        assertSame(Strength.valueOf(1200), Strength.valueOf(1200));
+        assertSame(Strength.none, Strength.valueOf(-5));
+        assertEquals(twelve, Strength.valueOf(1200));
+    }
+
+    @Test
+    public void addClampsAtZero() {
+        assertEquals(Strength.valueOf(1500), twelve.add(3));
+        assertEquals(Strength.none, twelve.add(-20));
+    }
+
+    @Test
+    public void multiplyIsExact() {
+        assertEquals(Strength.valueOf(3600), twelve.multiply(3));
+        assertEquals(Strength.valueOf(3600), twelve.multiply(-3));
+        assertEquals(Strength.none, twelve.multiply(0));
+    }
+
+    @Test
+    public void divideRoundsHalfEven() {
+        assertEquals(Strength.valueOf(400), twelve.divide(3));
+        assertEquals(Strength.valueOf(171), twelve.divide(7));
+        assertEquals(Strength.valueOf(2), Strength.valueOf(5).divide(2));
+        assertEquals(Strength.valueOf(4), Strength.valueOf(7).divide(2));
+        assertEquals(Strength.valueOf(400), twelve.divide(-3));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void divideByZero() {
+        twelve.divide(0);
+    }
+
+    @Test
+    public void weightMultipliedByStrength() {
+        Weight base = new Weight(9, Unit.kg);
+        assertEquals(new Weight(108, Unit.kg), base.multiply(twelve));
+        assertEquals(base.multiply(twelve.getNumeral()), base.multiply(twelve));
+    }
+}
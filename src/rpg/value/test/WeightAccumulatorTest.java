@@ -0,0 +1,103 @@
+package rpg.value.test;
+
+import org.junit.Before;
+import org.junit.Test;
+import rpg.value.Unit;
+import rpg.value.Weight;
+import rpg.value.WeightAccumulator;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WeightAccumulatorTest {
+
+    WeightAccumulator accumulator;
+
+    static Weight oneKilogram = new Weight(1, Unit.kg);
+    static Weight thousandGram = new Weight(1000, Unit.g);
+    static Weight onePound = new Weight(1, Unit.lbs);
+
+    @Before
+    public void setUp() {
+        accumulator = new WeightAccumulator();
+    }
+
+    @Test
+    public void emptyIsZero() {
+        assertEquals(Weight.kg_0, accumulator.toWeight());
+    }
+
+    @Test
+    public void addNull() {
+        accumulator.add(null);
+        assertEquals(Weight.kg_0, accumulator.toWeight());
+    }
+
+    @Test
+    public void addMatchesWeightAdd() {
+        accumulator.add(oneKilogram).add(thousandGram).add(onePound);
+        assertEquals(oneKilogram.add(thousandGram).add(onePound), accumulator.toWeight());
+    }
+
+    @Test
+    public void addAll() {
+        accumulator.addAll(Arrays.asList(oneKilogram, thousandGram));
+        assertEquals(new Weight(2, Unit.kg), accumulator.toWeight());
+    }
+
+    @Test
+    public void addTimes() {
+        accumulator.add(new Weight(50, Unit.g), 40);
+        assertEquals(new Weight(2, Unit.kg), accumulator.toWeight());
+    }
+
+    @Test
+    public void compareToCapacity() {
+        accumulator.add(thousandGram);
+        assertEquals(0, accumulator.compareToCapacity(oneKilogram));
+        accumulator.add(new Weight(1, Unit.g));
+        assertTrue(accumulator.exceeds(oneKilogram));
+        assertFalse(accumulator.exceeds(new Weight(2, Unit.kg)));
+    }
+
+    @Test
+    public void compareToHugeCapacity() {
+        Weight hugeCapacity = new Weight(BigDecimal.valueOf(Long.MAX_VALUE, 5), Unit.lbs);
+        accumulator.add(oneKilogram);
+        assertEquals(accumulator.toWeight().compareTo(hugeCapacity), accumulator.compareToCapacity(hugeCapacity));
+        assertEquals(-1, accumulator.compareToCapacity(hugeCapacity));
+        assertFalse(accumulator.exceeds(hugeCapacity));
+    }
+
+    @Test
+    public void exceedsWithHugeCapacity() {
+        Weight hugeCapacity = new Weight(BigDecimal.valueOf(Long.MAX_VALUE, 5), Unit.lbs);
+        accumulator.add(oneKilogram);
+        assertFalse(accumulator.exceedsWith(onePound, hugeCapacity));
+        assertFalse(accumulator.exceedsWith(null, hugeCapacity));
+    }
+
+    @Test
+    public void subtractOtherUnit() {
+        accumulator.add(oneKilogram).add(onePound);
+        accumulator.subtract(onePound);
+        assertEquals(oneKilogram, accumulator.toWeight());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void subtractMoreThanTotal() {
+        accumulator.add(thousandGram);
+        accumulator.subtract(new Weight(1001, Unit.g));
+    }
+
+    @Test
+    public void reset() {
+        accumulator.add(oneKilogram);
+        accumulator.reset();
+        assertEquals(Weight.kg_0, accumulator.toWeight());
+    }
+}
@@ -9,6 +9,7 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -198,4 +199,41 @@ public class WeightTest {
         assertEquals(expectedMultiple,
                 standardWeight.multiply(new BigDecimal(2)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void addPoundsToKilograms() {
+        Weight sum = new Weight(new BigDecimal("1.453592"), kg);
+        assertEquals(sum, standardWeight.add(poundWeight));
+    }
+
+    @Test
+    public void toUnitLargeWeight() {
+        Weight large = new Weight(1000000000, kg);
+        assertEquals(new Weight(new BigDecimal("2204622621.85"), Unit.lbs),
+                large.toUnit(Unit.lbs));
+    }
+
+    @Test
+    public void toStringWholeNumeral() {
+        assertEquals("[1000 g]", nonStandardUnitWeight.toString());
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void constructorOutOfRange() {
+        new Weight(new BigDecimal("1E13"), kg);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void addOutOfRange() {
+        Weight large = new Weight(new BigDecimal("9E12"), kg);
+        large.add(large);
+    }
+
+    @Test
+    public void compareToOutOfRangeOfUnit() {
+        Weight largest = new Weight(BigDecimal.valueOf(Long.MAX_VALUE, Unit.lbs.getPrecision()), Unit.lbs);
+        assertEquals(-1, standardWeight.compareTo(largest));
+        assertEquals(1, largest.compareTo(standardWeight));
+        assertFalse(standardWeight.hasSameValue(largest));
+    }
+}